@@ -0,0 +1,74 @@
+package epi.man.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import epi.man.sim.AllPairsTable;
+import epi.man.sim.Direction;
+import epi.man.sim.GameMap;
+
+/**
+ * Table des plus courts chemins des petites cartes : calcul complet et requêtes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AllPairsBenchmark {
+
+    /** Nombre de paires demandées par appel*/
+    static final int QUERIES = 1024;
+
+    /** Seules les petites cartes ont une table (voir {@link AllPairsTable#MAX_TILES})*/
+    @Param({MapFixtures.SHIPPED, "synthetic-48"})
+    public String map;
+
+    private GameMap gameMap;
+    private AllPairsTable table;
+    private final int[] from = new int[QUERIES], to = new int[QUERIES];
+
+    @Setup
+    public void setup() {
+        gameMap = MapFixtures.load(map);
+        table = AllPairsTable.build(gameMap);
+
+        Random random = new Random(42);
+        int tiles = gameMap.getWidth() * gameMap.getHeight();
+        for (int i = 0; i < QUERIES; i++) {
+            from[i] = random.nextInt(tiles);
+            to[i] = random.nextInt(tiles);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public AllPairsTable build() {
+        return AllPairsTable.build(gameMap);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int nextStep() {
+        int found = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            Direction d = table.nextStep(from[i], to[i]);
+            if (d != null) found++;
+        }
+        return found;
+    }
+}
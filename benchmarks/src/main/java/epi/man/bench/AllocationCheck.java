@@ -0,0 +1,141 @@
+package epi.man.bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import epi.man.sim.FrameProfiler;
+import epi.man.sim.World;
+
+/**
+ * Vérifie qu'un pas de simulation n'alloue rien une fois la partie lancée :
+ * des milliers de pas sont joués et les octets alloués par le thread, et par les threads
+ * de décision pour la partie qui en a ({@link TrackedPool}), sont relus dans le
+ * ThreadMXBean de la JVM. Au-delà de zéro, le programme échoue (code 1).
+ *
+ * Chaque partie est mesurée {@link #RUNS} fois après un long échauffement, et la partie échoue
+ * si une seule mesure alloue : une allocation qui ne se produit que de temps en temps (champ
+ * recalculé, partie recréée...) ne doit pas passer. Chaque pas est mesuré comme dans une frame
+ * de jeu : profiler actif et frame du profiler terminée après le pas.
+ *
+ * Limite : seule la simulation (module sim) est mesurée. Les passes de rendu de {@code Core.render}
+ * (SpriteBatch, HUD, couche statique, culling) demandent un contexte OpenGL et ne sont pas
+ * couvertes : une allocation par frame y passe inaperçue ici, à vérifier avec la mémoire
+ * du rapport de saccades ou un enregistrement Flight Recorder.
+ *
+ * Lancé par {@code ./gradlew benchmarks:allocationCheck}, et donc par {@code check}.
+ * Argument optionnel : nombre de pas mesurés par partie.
+ */
+public final class AllocationCheck {
+
+    /** Pas mesurés par partie par défaut*/
+    static final int DEFAULT_TICKS = 5000;
+    /** Pas joués avant la mesure : JIT, tableaux et caches à leur taille*/
+    static final int WARMUP_TICKS = 20000;
+    /** Mesures par partie, toutes doivent être à zéro*/
+    static final int RUNS = 3;
+    /** Threads de décision de la partie en parallèle*/
+    static final int DECISION_THREADS = 4;
+
+    /** Parties vérifiées : carte, nombre d'ennemis, décisions sur un ForkJoinPool ou non*/
+    private static final String[] MAPS = {MapFixtures.SHIPPED, MapFixtures.SHIPPED, "horde-64", "horde-64"};
+    private static final int[] ENEMIES = {4, 256, 2000, 2000};
+    private static final boolean[] PARALLEL = {false, false, false, true};
+
+    private AllocationCheck() {}
+
+    private static World create(int k, FrameProfiler profiler, ForkJoinPool pool) {
+        World world = Worlds.create(MAPS[k], ENEMIES[k]);
+        world.setProfiler(profiler);
+        if (PARALLEL[k]) world.setDecisionPool(pool);
+        return world;
+    }
+
+    public static void main(String[] args) {
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TICKS;
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long thread = Thread.currentThread().getId();
+        TrackedPool workers = new TrackedPool(DECISION_THREADS);
+
+        boolean failed = false;
+        for (int k = 0; k < MAPS.length; k++) {
+            Worlds.ScriptedInput input = new Worlds.ScriptedInput();
+            FrameProfiler profiler = new FrameProfiler();
+            World world = create(k, profiler, workers.pool);
+            for (int i = 0; i < WARMUP_TICKS; i++) {
+                if (world.isLost()) world = create(k, profiler, workers.pool);
+                world.step(Worlds.STEP, input);
+                profiler.endFrame();
+                input.tick();
+            }
+
+            long worst = 0;
+            int measured = 0;
+            for (int run = 0; run < RUNS; run++) {
+                // une partie perdue est recréée hors de la mesure, avec son premier pas
+                // (les tableaux de la grille de collision y prennent leur taille)
+                long bytes = 0;
+                measured = 0;
+                while (measured < ticks) {
+                    if (world.isLost()) {
+                        world = create(k, profiler, workers.pool);
+                        world.step(Worlds.STEP, input);
+                        profiler.endFrame();
+                        input.tick();
+                    }
+                    // threads de décision lus avant le thread courant au début et après à la fin :
+                    // ce que la lecture alloue reste hors de la mesure
+                    long before = workers.allocatedBytes(threads) + threads.getThreadAllocatedBytes(thread);
+                    while (measured < ticks && !world.isLost()) {
+                        world.step(Worlds.STEP, input);
+                        profiler.endFrame();
+                        input.tick();
+                        measured++;
+                    }
+                    bytes += threads.getThreadAllocatedBytes(thread) + workers.allocatedBytes(threads) - before;
+                }
+                worst = Math.max(worst, bytes);
+            }
+
+            double perTick = worst / (double) measured;
+            System.out.printf("%s, %d ennemis%s : %d pas, %.2f octets alloués par pas (pire de %d mesures)%n",
+                MAPS[k], ENEMIES[k], PARALLEL[k] ? ", " + DECISION_THREADS + " threads de décision" : "",
+                measured, perTick, RUNS);
+            if (worst > 0) failed = true;
+        }
+        workers.pool.shutdown();
+
+        if (failed) {
+            System.err.println("Un pas de simulation alloue de la mémoire (voir ci-dessus)");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * ForkJoinPool dont les threads sont retenus, pour relire leurs allocations.
+     */
+    static final class TrackedPool {
+        final ForkJoinPool pool;
+        /** Identifiants des threads créés par le pool*/
+        private final long[] ids = new long[256];
+        private final AtomicInteger count = new AtomicInteger();
+
+        TrackedPool(int threads) {
+            pool = new ForkJoinPool(threads, p -> {
+                ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                ids[count.getAndIncrement()] = worker.getId();
+                return worker;
+            }, null, false);
+        }
+
+        /** @return octets alloués par les threads du pool depuis leur création */
+        long allocatedBytes(com.sun.management.ThreadMXBean threads) {
+            long bytes = 0;
+            int n = count.get();
+            for (int i = 0; i < n; i++) bytes += Math.max(0, threads.getThreadAllocatedBytes(ids[i]));
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package epi.man.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import epi.man.sim.BonusStore;
+import epi.man.sim.GameMap;
+import epi.man.sim.JunctionGraph;
+
+/**
+ * Requêtes de collision avec la carte, sur des positions tirées au hasard :
+ * tuile traversable, sorties de la tuile pour un ennemi, ramassage d'un bonus.
+ * Les temps sont donnés par requête.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+
+    /** Nombre de positions testées par appel*/
+    static final int PROBES = 1024;
+
+    @Param({MapFixtures.SHIPPED, "synthetic-128", "synthetic-512"})
+    public String map;
+
+    private GameMap gameMap;
+    private BonusStore bonuses;
+    private JunctionGraph junctions;
+    private final float[] probeX = new float[PROBES];
+    private final float[] probeY = new float[PROBES];
+
+    @Setup
+    public void setup() {
+        gameMap = MapFixtures.load(map);
+        bonuses = gameMap.getBonuses();
+        junctions = gameMap.getJunctions();
+
+        Random random = new Random(42);
+        for (int i = 0; i < PROBES; i++) {
+            probeX[i] = random.nextFloat() * gameMap.getWorldWidth();
+            probeY[i] = random.nextFloat() * gameMap.getWorldHeight();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public int isWalkableWorld() {
+        int walkable = 0;
+        for (int i = 0; i < PROBES; i++) {
+            if (gameMap.isWalkableWorld(probeX[i], probeY[i])) walkable++;
+        }
+        return walkable;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public int enemyExits() {
+        int exits = 0;
+        for (int i = 0; i < PROBES; i++) {
+            exits += junctions.exits(gameMap.tileIndexAtWorld(probeX[i], probeY[i]));
+        }
+        return exits;
+    }
+
+    /**
+     * Ramassage avec la boîte du joueur ; le bonus ramassé est remis aussitôt
+     * pour que chaque appel voie la même carte.
+     */
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public int bonusCollectAt() {
+        int collected = 0;
+        for (int i = 0; i < PROBES; i++) {
+            int index = bonuses.collectAt(probeX[i], probeY[i], 40, 50);
+            if (index >= 0) {
+                bonuses.uncollect(index);
+                collected++;
+            }
+        }
+        return collected;
+    }
+}
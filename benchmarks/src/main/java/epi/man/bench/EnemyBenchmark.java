@@ -0,0 +1,86 @@
+package epi.man.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import epi.man.sim.CollisionSystem;
+import epi.man.sim.ContactListener;
+import epi.man.sim.EnemyAiSystem;
+import epi.man.sim.EnemyMovementSystem;
+import epi.man.sim.EnemyStore;
+import epi.man.sim.World;
+
+/**
+ * IA des ennemis (choix de direction puis déplacement) et phase de collision
+ * (grille, contacts joueur / ennemis et joueur / bonus), pour tous les ennemis
+ * d'une partie. Les temps sont donnés par pas.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnemyBenchmark {
+
+    @Param({MapFixtures.SHIPPED, "synthetic-128", "synthetic-512"})
+    public String map;
+
+    @Param({"4", "256", "10000"})
+    public int enemies;
+
+    private World world;
+    private EnemyStore store;
+    private EnemyMovementSystem movement;
+    private CollisionSystem collisions;
+    private final CountingContacts contacts = new CountingContacts();
+
+    @Setup
+    public void setup() {
+        world = Worlds.create(map, enemies);
+        store = world.getEnemies();
+        movement = new EnemyMovementSystem(world.getMap(),
+            new EnemyAiSystem(world.getMap(), world.getFlowField(), world.getNavigation()));
+        collisions = new CollisionSystem(world.getMap(), world.getPlayer(), store);
+    }
+
+    /** Un pas d'IA : déplacement de tous les ennemis, choix de direction aux carrefours. */
+    @Benchmark
+    public void enemyUpdate() {
+        movement.update(store, Worlds.STEP);
+    }
+
+    /** Phase de collision d'un pas, les contacts sont seulement comptés. */
+    @Benchmark
+    public int collisionPhase() {
+        contacts.count = 0;
+        collisions.detect(contacts);
+        return contacts.count;
+    }
+
+    /** Compte les contacts sans les appliquer, pour garder la partie identique. */
+    private static final class CountingContacts implements ContactListener {
+        int count;
+
+        @Override
+        public void onEnemyContact(int enemy) {
+            count++;
+        }
+
+        @Override
+        public void onBonusContact(int tileIndex) {
+            count++;
+        }
+    }
+}
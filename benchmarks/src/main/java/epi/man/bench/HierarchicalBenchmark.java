@@ -0,0 +1,87 @@
+package epi.man.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import epi.man.sim.Direction;
+import epi.man.sim.GameMap;
+import epi.man.sim.HierarchicalPathfinder;
+
+/**
+ * Recherche par blocs des très grandes cartes : construction du graphe abstrait et requêtes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HierarchicalBenchmark {
+
+    /** Nombre de paires demandées par appel*/
+    static final int QUERIES = 64;
+
+    @Param({"synthetic-128", "synthetic-1024"})
+    public String map;
+
+    /** Nœuds développés au plus par requête*/
+    @Param({"4096", "1000000"})
+    public int budget;
+
+    private GameMap gameMap;
+    private HierarchicalPathfinder pathfinder;
+    private final int[] from = new int[QUERIES], to = new int[QUERIES];
+
+    @Setup
+    public void setup() {
+        gameMap = MapFixtures.load(map);
+        pathfinder = new HierarchicalPathfinder(gameMap);
+        pathfinder.setBudget(budget);
+
+        Random random = new Random(42);
+        for (int i = 0; i < QUERIES; i++) {
+            from[i] = walkableTile(random);
+            to[i] = walkableTile(random);
+        }
+    }
+
+    private int walkableTile(Random random) {
+        int tiles = gameMap.getWidth() * gameMap.getHeight();
+        int tile;
+        do {
+            tile = random.nextInt(tiles);
+        } while (!gameMap.isWalkable(tile));
+        return tile;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public HierarchicalPathfinder build() {
+        return new HierarchicalPathfinder(gameMap);
+    }
+
+    /** Paires au hasard sur toute la carte, les champs raffinés restent en cache entre les appels. */
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int nextStep() {
+        int found = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            Direction d = pathfinder.nextStep(from[i], to[i]);
+            if (d != null) found++;
+        }
+        return found;
+    }
+}
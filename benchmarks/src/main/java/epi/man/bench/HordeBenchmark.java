@@ -0,0 +1,66 @@
+package epi.man.bench;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import epi.man.sim.World;
+
+/**
+ * Mode horde : un pas complet de simulation avec des milliers d'ennemis dans une arène
+ * ouverte, où ils passent presque chaque tuile sur un carrefour.
+ * {@code threads} : threads de décision des ennemis, 1 pour décider sur le thread du pas.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HordeBenchmark {
+
+    @Param({"horde-64", "horde-192"})
+    public String map;
+
+    @Param({"2000", "10000"})
+    public int enemies;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private World world;
+    private ForkJoinPool pool;
+    private final Worlds.ScriptedInput input = new Worlds.ScriptedInput();
+
+    @Setup
+    public void setup() {
+        if (threads > 1 && pool == null) pool = new ForkJoinPool(threads);
+        world = Worlds.create(map, enemies);
+        world.setDecisionPool(pool);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (pool != null) pool.shutdown();
+    }
+
+    @Benchmark
+    public void step() {
+        // partie perdue : on en relance une, sinon les pas suivants ne feraient plus rien
+        if (world.isLost()) setup();
+        world.step(Worlds.STEP, input);
+        input.tick();
+    }
+}
@@ -0,0 +1,112 @@
+package epi.man.bench;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import epi.man.sim.GameMap;
+
+/**
+ * Cartes utilisées par les benchmarks.
+ * - "map.txt" : la carte livrée avec le jeu (lue depuis assets/map, à la racine du projet)
+ * - "synthetic-N" : carte générée de N x N tuiles, salle de classe répétée avec allées et bonus
+ * - "horde-N" : arène ouverte de N x N tuiles pour le mode horde (des milliers d'ennemis)
+ */
+final class MapFixtures {
+
+    /** Carte livrée avec le jeu*/
+    static final String SHIPPED = "map.txt";
+    /** Préfixe des cartes générées*/
+    static final String SYNTHETIC = "synthetic-";
+    /** Préfixe des arènes du mode horde*/
+    static final String HORDE = "horde-";
+
+    private MapFixtures() {}
+
+    /**
+     * @param name "map.txt", "synthetic-N" ou "horde-N"
+     * @return texte de la carte, au format des fichiers map
+     */
+    static String text(String name) {
+        if (name.equals(SHIPPED)) {
+            try {
+                return new String(Files.readAllBytes(Paths.get("assets", "map", SHIPPED)), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Carte introuvable, lancer depuis la racine du projet", e);
+            }
+        }
+        if (name.startsWith(SYNTHETIC)) {
+            int size = Integer.parseInt(name.substring(SYNTHETIC.length()));
+            return synthetic(size, size);
+        }
+        if (name.startsWith(HORDE)) {
+            int size = Integer.parseInt(name.substring(HORDE.length()));
+            return horde(size, size);
+        }
+        throw new IllegalArgumentException("Carte inconnue : " + name);
+    }
+
+    /**
+     * @param name "map.txt", "synthetic-N" ou "horde-N"
+     * @return carte compilée, avec ses bonus
+     */
+    static GameMap load(String name) {
+        return GameMap.parse(text(name));
+    }
+
+    /**
+     * Génère une carte : murs sur les bords, allées toutes les 4 tuiles,
+     * îlots de tables entre les allées, bonus sur le reste du sol,
+     * un enclos vide au centre et le départ en haut à gauche.
+     * @param width largeur en tuiles
+     * @param height hauteur en tuiles
+     * @return texte de la carte
+     */
+    static String synthetic(int width, int height) {
+        StringBuilder sb = new StringBuilder((width + 1) * height);
+        int cx = width / 2, cy = height / 2;
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                char c;
+                if (row == 0 || col == 0 || row == height - 1 || col == width - 1) c = 'T';
+                else if (Math.abs(row - cy) <= 1 && Math.abs(col - cx) <= 1) c = '0';
+                else if (row % 4 == 0 || col % 4 == 0) c = 'b';
+                else if (row % 4 == 2 && col % 4 != 1) c = 'C';
+                else c = 'b';
+                sb.append(c);
+            }
+            sb.append('\n');
+        }
+        sb.setCharAt(width + 2, 'P');
+        return sb.toString();
+    }
+
+    /**
+     * Génère une arène : murs sur les bords, piliers isolés toutes les 6 tuiles
+     * (presque chaque tuile est un carrefour), quelques bonus, un enclos vide au centre
+     * et le départ en haut à gauche.
+     * @param width largeur en tuiles
+     * @param height hauteur en tuiles
+     * @return texte de la carte
+     */
+    static String horde(int width, int height) {
+        StringBuilder sb = new StringBuilder((width + 1) * height);
+        int cx = width / 2, cy = height / 2;
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                char c;
+                if (row == 0 || col == 0 || row == height - 1 || col == width - 1) c = 'T';
+                else if (Math.abs(row - cy) <= 1 && Math.abs(col - cx) <= 1) c = '0';
+                else if (row % 6 == 0 && col % 6 == 0) c = 'T';
+                else if (row % 6 == 3 && col % 6 == 3) c = 'b';
+                else c = '0';
+                sb.append(c);
+            }
+            sb.append('\n');
+        }
+        sb.setCharAt(width + 2, 'P');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,53 @@
+package epi.man.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import epi.man.sim.FlowField;
+import epi.man.sim.GameMap;
+
+/**
+ * Calculs de chemin vers le joueur.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NavigationBenchmark {
+
+    @Param({MapFixtures.SHIPPED, "synthetic-128", "synthetic-512"})
+    public String map;
+
+    private FlowField flowField;
+    /** Deux tuiles voisines : le joueur qui change de case*/
+    private int tileA, tileB;
+    private boolean onA;
+
+    @Setup
+    public void setup() {
+        GameMap gameMap = MapFixtures.load(map);
+        flowField = new FlowField(gameMap);
+        tileA = gameMap.tileIndexAtWorld(gameMap.getSpawnX() + 1, gameMap.getSpawnY() + 1);
+        tileB = tileA + 1;
+    }
+
+    /** Recalcul complet du champ, comme à chaque changement de tuile du joueur. */
+    @Benchmark
+    public boolean flowFieldRebuild() {
+        onA = !onA;
+        return flowField.update(onA ? tileA : tileB);
+    }
+}
@@ -0,0 +1,52 @@
+package epi.man.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import epi.man.sim.World;
+
+/**
+ * Un pas complet de simulation (joueur, ennemis, contacts, bonus, victoire),
+ * avec des commandes scriptées qui font tourner le joueur en rond.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TickBenchmark {
+
+    @Param({MapFixtures.SHIPPED, "synthetic-128", "synthetic-512"})
+    public String map;
+
+    @Param({"4", "256"})
+    public int enemies;
+
+    private World world;
+    private final Worlds.ScriptedInput input = new Worlds.ScriptedInput();
+
+    @Setup
+    public void setup() {
+        world = Worlds.create(map, enemies);
+    }
+
+    @Benchmark
+    public void step() {
+        // partie perdue : on en relance une, sinon les pas suivants ne feraient plus rien
+        if (world.isLost()) setup();
+        world.step(Worlds.STEP, input);
+        input.tick();
+    }
+}
@@ -0,0 +1,83 @@
+package epi.man.bench;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import epi.man.sim.Direction;
+import epi.man.sim.EnemyPolicy;
+import epi.man.sim.GameMap;
+import epi.man.sim.InputSource;
+import epi.man.sim.NavigationService;
+import epi.man.sim.World;
+
+/**
+ * Parties préparées pour les benchmarks.
+ */
+final class Worlds {
+
+    /** Pas de simulation du jeu (60 pas par seconde)*/
+    static final float STEP = 1f / 60f;
+
+    private static final EnemyPolicy[] POLICIES = EnemyPolicy.values();
+
+    /** Chemins précalculés par carte, pour ne pas les recalculer à chaque nouvelle partie*/
+    private static final Map<String, NavigationService> NAVIGATION = new HashMap<>();
+
+    private Worlds() {}
+
+    /**
+     * Partie avec les 4 ennemis du jeu au centre de la carte, puis les suivants
+     * répartis au hasard (graine fixe) sur les tuiles traversables.
+     * @param map nom de la carte (voir {@link MapFixtures})
+     * @param enemies nombre d'ennemis
+     * @return la partie
+     */
+    static World create(String map, int enemies) {
+        GameMap gameMap = MapFixtures.load(map);
+        if (!NAVIGATION.containsKey(map)) NAVIGATION.put(map, World.navigationFor(gameMap));
+        World world = new World(gameMap, NAVIGATION.get(map));
+
+        float tile = GameMap.TILE_SIZE;
+        float cx = gameMap.getWorldWidth() / 2f - tile / 2f;
+        float cy = gameMap.getWorldHeight() / 2f - tile / 2f;
+        float[][] spawns = {{cx, cy}, {cx + tile, cy}, {cx - tile, cy}, {cx, cy - tile}};
+
+        Random random = new Random(42);
+        for (int i = 0; i < enemies; i++) {
+            float x, y;
+            if (i < spawns.length) {
+                x = spawns[i][0];
+                y = spawns[i][1];
+            } else {
+                int index;
+                do {
+                    index = random.nextInt(gameMap.getWidth() * gameMap.getHeight());
+                } while (!gameMap.isWalkable(index));
+                x = gameMap.worldX(index);
+                y = gameMap.worldY(index);
+            }
+            world.spawnEnemy(POLICIES[i % POLICIES.length], x, y, 150f, 25, 50);
+        }
+        return world;
+    }
+
+    /**
+     * Commandes scriptées : change de direction toutes les demi-secondes.
+     */
+    static final class ScriptedInput implements InputSource {
+
+        private static final Direction[] DIRECTIONS = {Direction.RIGHT, Direction.DOWN, Direction.LEFT, Direction.UP};
+
+        private int ticks;
+
+        void tick() {
+            ticks++;
+        }
+
+        @Override
+        public Direction direction() {
+            return DIRECTIONS[(ticks / 30) % DIRECTIONS.length];
+        }
+    }
+}
@@ -1,275 +1,227 @@
 package epi.man;
 
-import java.util.ArrayList;
-
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
-import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+
+import epi.man.sim.BonusStore;
+import epi.man.sim.Direction;
+import epi.man.sim.GameMap;
+import epi.man.sim.MapFile;
+import epi.man.sim.TileType;
+import epi.man.sim.Tracer;
 
-import epi.man.entities.Student;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
- * représente notre map
+ * représente notre map à l'écran.
+ * Les règles (tuiles traversables, bonus) sont dans {@link GameMap}, Board ne fait que l'afficher.
  */
 
 public class Board {
     /**Taille d'une tuile de la carte*/
-    public static final int TILE_SIZE = 50;
-    /**Textures utilisées pour dessiner les assets*/
-    private Texture table, chaise, distributeur, Ctable, TropheeTex, background;
-    /**Carte chargé depuis un ficheir txt*/
-    private char[][] map;
-    /** liste des bonus sur la map*/
-    private ArrayList<Bonus> bonuses = new ArrayList<>();
-    /** nombre de bonus sur la carte*/
-    private int totalBonuses = 0;
-    /** nombre de bonus déjà collecté*/
-    private int collectedBonuses = 0;
-    /** Police pour le texte*/
-    private BitmapFont font;
-    /** notre joueur*/
-    private Student student;
+    public static final int TILE_SIZE = GameMap.TILE_SIZE;
+    /** Ressources partagées du jeu*/
+    private GameAssets assets;
+    /**Images utilisées pour dessiner les assets, prises dans l'atlas*/
+    private TextureRegion table, chaise, distributeur, Ctable, TropheeTex;
+    /** Parquet, trop grand pour l'atlas*/
+    private static final String PARQUET = "map/parquet.jpg";
+    private Texture background;
+    /** Carte compilée, partagée avec la simulation*/
+    private GameMap map;
+    /** Fond et mobilier, chargés sur le GPU par blocs autour de la caméra*/
+    private StaticLayer staticLayer;
+    /** Trophée partagé par tous les bonus de la carte*/
+    private Trophee trophee;
 
     /**
      * constructeur principal, il charge la map
      * @param mapFilename chemin du fichier comprenant la map.
+     * @param assets ressources partagées, déjà chargées
      */
-    public Board(String mapFilename) {
-        loadTextures();
-        map = loadMap(mapFilename);
-        countInitialBonuses();
-
-        /**Spawn du joueur sur la case 'P'*/
-        Vector2 spawn = getPlayerSpawn();
-        student = new Student(spawn.x, spawn.y, 200f, this);
-
-        System.out.println("Map chargée (" + map.length + " lignes)");
-        System.out.println("Joueur à la position: (" + spawn.x + ", " + spawn.y + ")");
-        System.out.println("Nombre de trophées : " + totalBonuses);
+    public Board(String mapFilename, GameAssets assets) {
+        this(mapFilename, assets, Tracer.NONE);
     }
 
     /**
-     * charge les textures utilisées.
+     * @param mapFilename chemin du fichier comprenant la map.
+     * @param assets ressources partagées, déjà chargées
+     * @param tracer reçoit la durée du chargement de la map
      */
-    private void loadTextures() {
-        background = new Texture("map/parquet.jpg");
-        table = new Texture("map/table.png");
-        chaise = new Texture("map/chaise.png");
-        distributeur = new Texture("map/distributeur.png");
-        Ctable = new Texture("map/Ctable.png");
-        TropheeTex = new Texture("map/Trophee.png");
-        font = new BitmapFont();
-        font.setColor(Color.WHITE);
-        font.getData().setScale(2f);
+    public Board(String mapFilename, GameAssets assets, Tracer tracer) {
+        this.assets = assets;
+        loadTextures();
+        tracer.beginMapLoad();
+        map = loadMap(mapFilename);
+        bakeStaticLayer();
+        tracer.endMapLoad(mapFilename, map.getWidth(), map.getHeight());
+
+        System.out.println("Map chargée (" + map.getHeight() + " lignes)");
+        System.out.println("Joueur à la position: (" + map.getSpawnX() + ", " + map.getSpawnY() + ")");
+        System.out.println("Nombre de trophées : " + map.getBonuses().getTotal());
     }
 
     /**
-     * charge la carte et génère les bonus
-     * @param filename chemin vers le fichier map
-     * @return les caractères qui représentent la map.
+     * Charge la carte compilée (.epimap, projetée en mémoire) si elle existe et n'est pas
+     * plus ancienne que le texte, sinon compile le texte.
+     * @param mapFilename chemin du fichier texte de la map
      */
-    private char[][] loadMap(String filename) {
-        FileHandle file = Gdx.files.internal(filename);
-        String[] lines = file.readString().split("\n");
-
-        char[][] mapData = new char[lines.length][];
-
-        for (int y = 0; y < lines.length; y++) {
-            mapData[y] = lines[y].toCharArray();
-            for (int x = 0; x < lines[y].length(); x++) {
-                if (lines[y].charAt(x) == 'b') {
-                    float bx = x * TILE_SIZE;
-                    float by = (lines.length - 1 - y) * TILE_SIZE;
-                    bonuses.add(new Trophee((int) bx, (int) by, TropheeTex));
-                }
+    private static GameMap loadMap(String mapFilename) {
+        FileHandle text = Gdx.files.internal(mapFilename);
+        FileHandle compiled = Gdx.files.internal(MapFile.compiledName(mapFilename));
+        if (compiled.exists() && compiled.lastModified() >= text.lastModified()) {
+            try {
+                /** fichier sur le disque : projeté ; ressource du jar : lue en une fois*/
+                if (compiled.file().exists()) return MapFile.map(compiled.file().toPath());
+                return MapFile.read(ByteBuffer.wrap(compiled.readBytes()));
+            } catch (IOException e) {
+                System.out.println("Carte compilée illisible, lecture du texte (" + e.getMessage() + ")");
             }
         }
-
-        return mapData;
-    }
-
-    /**
-     * Calcul et enregistre le nombre de bonus de base dans la carte
-     */
-    private void countInitialBonuses() {
-        totalBonuses = bonuses.size();
-        collectedBonuses = 0;
+        return GameMap.parse(text.readString());
     }
 
     /**
-     * vérifie si la position est traversable par le joueur.
-     * @param worldX position X
-     * @param worldY position Y
-     * @return true si la tuile est travversable
+     * charge les textures utilisées, en prenant une référence sur l'atlas et le parquet.
      */
-    public boolean isWalkableWorld(float worldX, float worldY) {
-        int tileX = (int) (worldX / TILE_SIZE);
-        int tileY = map.length - 1 - (int) (worldY / TILE_SIZE);
-
-        return canMoveTo(tileX, tileY);
+    private void loadTextures() {
+        assets.retain(GameAssets.ATLAS, TextureAtlas.class);
+        background = assets.retain(PARQUET, Texture.class);
+        table = assets.region("map/table");
+        chaise = assets.region("map/chaise");
+        distributeur = assets.region("map/distributeur");
+        Ctable = assets.region("map/Ctable");
+        TropheeTex = assets.region("map/Trophee");
+        trophee = new Trophee(TropheeTex);
     }
 
     /**
-     * Vérifie si la tuile correspond à un élément traversable
+     * Prépare la couche statique (fond et mobilier), chargée ensuite par blocs.
      */
-
-    private boolean canMoveTo(int x, int y) {
-        if (x < 0 || y < 0 || x >= map[0].length || y >= map.length)
-            return false;
-
-        char tile = map[y][x];
-
-        return tile == '0' || tile == 'P' || tile == 'b'|| tile == '-';
+    private void bakeStaticLayer() {
+        TextureRegion[] regions = new TextureRegion[TileType.CTABLE + 1];
+        regions[TileType.TABLE] = table;
+        regions[TileType.CHAIR] = chaise;
+        regions[TileType.VENDING] = distributeur;
+        regions[TileType.CTABLE] = Ctable;
+        staticLayer = new StaticLayer(map, TILE_SIZE, background, regions, StaticLayer.DEFAULT_BUDGET);
     }
 
     /**
-     * Maj l'état du joueur.
-     * @param delta temps écoulé depuis la dernière frame
+     * Charge les blocs du fond et du mobilier autour de la caméra et affiche ceux qui sont visibles,
+     * hors d'un {@code batch.begin()/end()}.
+     * @param camera caméra du monde, déjà à jour
+     * @param heading direction du joueur, null s'il est à l'arrêt
      */
-    public void update(float delta) {
-        if (student != null) {
-            student.update(delta);
-        }
+    public void renderStatic(OrthographicCamera camera, Direction heading) {
+        staticLayer.update(camera, heading);
+        staticLayer.render(camera);
     }
 
     /**
-     *Vérifie si on touche un bonus
-     * @return true si un bonus a été collecté
+     * Affiche les bonus restants des cases visibles : seules les lignes de tuiles
+     * dans la vue sont parcourues, quelle que soit la taille de la map.
+     * @param view partie du monde visible, en pixels
      */
-
-    public boolean checkBonusCollisionAt(float x, float y, float w, float h) {
-
-
-        for (int i = 0; i < bonuses.size(); i++) {
-            Bonus b = bonuses.get(i);
-
-            float bx = b.getX();
-            float by = b.getY();
-            float bw = b.getWidth();
-            float bh = b.getHeight();
-
-            boolean overlap =
-                x < bx + bw &&
-                    x + w > bx &&
-                    y < by + bh &&
-                    y + bh > by;
-
-            if (overlap) {
-                b.onCollected();
-                bonuses.remove(i);
-                collectedBonuses++;
-                return true;
-            }
+    public void render(SpriteBatch batch, Rectangle view) {
+        BonusStore bonuses = map.getBonuses();
+        int width = map.getWidth(), height = map.getHeight();
+        /** cases visibles, plus une de marge si le trophée déborde de sa case*/
+        int c0 = Math.max(0, (int) Math.floor(view.x / TILE_SIZE) - 1);
+        int c1 = Math.min(width - 1, (int) Math.floor((view.x + view.width) / TILE_SIZE) + 1);
+        int r0 = Math.max(0, height - 2 - (int) Math.floor((view.y + view.height) / TILE_SIZE));
+        int r1 = Math.min(height - 1, height - (int) Math.floor(view.y / TILE_SIZE));
+        for (int r = r0; r <= r1; r++) {
+            int end = r * width + c1 + 1;
+            for (int i = bonuses.nextRemaining(r * width + c0, end); i >= 0; i = bonuses.nextRemaining(i + 1, end))
+                trophee.render(batch, bonuses.worldX(i), bonuses.worldY(i));
         }
-        return false;
-    }
-
-    /**
-     * Affiche la carte, les bonus et les joueurs
-     */
-    public void render(SpriteBatch batch) {
-        batch.draw(background, 0, 0, getMapWidth(), getMapHeight());
-
-        /**tuiles*/
-        for (int y = 0; y < map.length; y++) {
-            for (int x = 0; x < map[y].length; x++) {
-                char tile = map[y][x];
-                int drawX = x * TILE_SIZE;
-                int drawY = (map.length - 1 - y) * TILE_SIZE;
-
-                switch (tile) {
-                    case 'D':
-                        batch.draw(distributeur, drawX, drawY, TILE_SIZE, TILE_SIZE);
-                        break;
-                    case 'C':
-                        batch.draw(chaise, drawX, drawY, TILE_SIZE, TILE_SIZE);
-                        break;
-                    case 'S':
-                        batch.draw(Ctable, drawX, drawY, TILE_SIZE, TILE_SIZE);
-                        break;
-                    case 'T':
-                        batch.draw(table, drawX, drawY, TILE_SIZE, TILE_SIZE);
-                        break;
-                }
-            }
-        }
-
-        for (Bonus b : bonuses)
-            if (!b.isCollected()) b.render(batch);
-
-        if (student != null) student.draw(batch);
     }
 
     /**
      * @return nombre de bonus restant
      */
     public int getRemainingBonuses() {
-        return bonuses.size();
+        return map.getBonuses().getRemaining();
     }
 
     /**
      * @return nombre de bonus total au début
      */
     public int getTotalBonuses() {
-        return totalBonuses;
+        return map.getBonuses().getTotal();
     }
 
     /**
      * @return nombre de bonus déjà collecté
      */
     public int getCollectedBonuses() {
-        return collectedBonuses;
+        return getTotalBonuses() - getRemainingBonuses();
     }
 
     /**
      * @return largeur de la map
      */
     public int getMapWidth() {
-        return map[0].length * TILE_SIZE;
+        return map.getWorldWidth();
     }
 
     /**
      * @return hauteur de la map
      */
     public int getMapHeight() {
-        return map.length * TILE_SIZE;
+        return map.getWorldHeight();
     }
 
-    public Student getStudent() {
-        return student;
+    /**
+     * @return ressources partagées, pour les entités
+     */
+    public GameAssets getAssets() {
+        return assets;
     }
 
-    public Vector2 getPlayerSpawn() {
-        if (map == null) return new Vector2(200, 100);
+    /**
+     * @return carte compilée, pour la simulation
+     */
+    public GameMap getMap() {
+        return map;
+    }
 
-        for (int y = 0; y < map.length; y++) {
-            for (int x = 0; x < map[y].length; x++) {
-                if (map[y][x] == 'P') {
-                    float px = x * TILE_SIZE;
-                    float py = (map.length - 1 - y) * TILE_SIZE;
-                    return new Vector2(px, py);
-                }
-            }
-        }
-        return new Vector2(0, 0);
+    /**
+     * @return trophée partagé par tous les bonus
+     */
+    public Bonus getBonus() {
+        return trophee;
     }
 
-    public char[][] getMap() {
-        return map;
+    /**
+     * @return largeur de la map en tuiles
+     */
+    public int getWidthInTiles() {
+        return map.getWidth();
     }
 
-    public void dispose() {
+    /**
+     * @return hauteur de la map en tuiles
+     */
+    public int getHeightInTiles() {
+        return map.getHeight();
     }
 
-    public char getTileAt(float worldX, float worldY) {
-        return 0;
+    /**
+     * Libère les blocs sur le GPU et rend les références prises sur les ressources.
+     */
+    public void dispose() {
+        if (staticLayer != null) staticLayer.dispose();
+        assets.release(PARQUET);
+        assets.release(GameAssets.ATLAS);
     }
 
 }
-
-
-
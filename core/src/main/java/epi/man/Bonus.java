@@ -3,33 +3,19 @@ package epi.man;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 
 /**
- * Cette interface représente un objet qui peut être collecté.
- *
+ * Cette interface représente un type d'objet qui peut être collecté.
+ * Une seule instance est partagée par toutes les tuiles qui portent ce bonus,
+ * la position et l'état collecté sont gardés par {@link BonusStore}.
  */
 public interface Bonus {
-    /**
-     * position horizontale du bonus.
-     * @return position X.
-     */
-    int getX();
-
-    /**
-     * Position verticale du bonus
-     * @return position Y
-     */
-    int getY();
-
-    /**
-     * Indique si le bonus a été collecté.
-     * @return true si le bonus est collecté sinon false.
-     */
-    boolean isCollected();
 
     /**
-     * Affiche le bonus
+     * Affiche le bonus à une position donnée.
      * @param batch {@link SpriteBatch}  utilisé pour le dessin.
+     * @param x position X du bonus
+     * @param y position Y du bonus
      */
-    void render(SpriteBatch batch);
+    void render(SpriteBatch batch, float x, float y);
 
     /**
      * Déclenche les actions à réaliser lorsque le bonus est collecté.
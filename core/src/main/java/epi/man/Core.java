@@ -4,22 +4,42 @@ import com.badlogic.gdx.ApplicationListener;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
-import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 
-import epi.man.entities.Entity;
 import epi.man.entities.Student;
+import epi.man.entities.enemies.EnemyAnimationSystem;
+import epi.man.entities.enemies.Enemies;
 import epi.man.entities.enemies.Florian;
 import epi.man.entities.enemies.Lyann;
 import epi.man.entities.enemies.Guillaume;
 import epi.man.entities.enemies.Adrien;
+import epi.man.screens.LoadingScreen;
 import epi.man.screens.MenuScreen;
 import epi.man.screens.OptionsScreen;
+import epi.man.sim.ActivityScheduler;
+import epi.man.sim.AllPairsTable;
+import epi.man.sim.FixedStepLoop;
+import epi.man.sim.FrameProfiler;
+import epi.man.sim.Metric;
+import epi.man.sim.Tracer;
+import epi.man.sim.GameMap;
+import epi.man.sim.HierarchicalPathfinder;
+import epi.man.sim.NavigationService;
+import epi.man.sim.Player;
+import epi.man.sim.Simulation;
+import epi.man.sim.World;
+import epi.man.sim.WorldListener;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  *Classe principale du jeu.
@@ -29,38 +49,87 @@ import epi.man.screens.OptionsScreen;
 
 public class Core implements ApplicationListener {
 
+    /** Nombre de pas de simulation par seconde par défaut*/
+    public static final int DEFAULT_TICK_RATE = 60;
+    /** Nombre maximal de pas de simulation rattrapés en une frame*/
+    public static final int MAX_STEPS_PER_FRAME = 5;
+    /** Dossier (dans le dossier utilisateur) des tables de chemins précalculées*/
+    public static final String NAVIGATION_CACHE = ".epi-man/cache";
+    /** Résumé des mesures par phase, écrit (dans le dossier utilisateur) à la fermeture du jeu*/
+    public static final String PROFILE_CSV = ".epi-man/profile.csv";
+    /** Vitesse des ennemis, en pixels par seconde*/
+    private static final float ENEMY_SPEED = 150f;
+    /** Graine du tirage de la horde par défaut*/
+    public static final long DEFAULT_HORDE_SEED = 42;
+    /** Distance minimale entre un ennemi de la horde et le départ du joueur, en tuiles*/
+    private static final int HORDE_SAFE_TILES = 5;
+    /** Tirages au plus pour placer un ennemi de la horde*/
+    private static final int HORDE_TRIES = 32;
+
+    /** Découpe le temps réel en pas de simulation de durée fixe*/
+    private final FixedStepLoop loop;
+    /** Partie en cours : règles du jeu, sans libGDX*/
+    private World world;
+    /** Fait avancer la partie avec le temps et le clavier de libGDX*/
+    private Simulation simulation;
+    /** Commandes du joueur*/
+    private final KeyboardInput input = new KeyboardInput();
+    /** Ennemis ajoutés en plus des 4 du jeu (mode horde), 0 pour une partie normale*/
+    private int horde = 0;
+    /** Graine du tirage des tuiles de la horde*/
+    private long hordeSeed = DEFAULT_HORDE_SEED;
+    /** Événements pour un outil de profilage externe (--jfr), aucun par défaut*/
+    private Tracer tracer = Tracer.NONE;
+
     /**Dessine tous éléments graphiques*/
     private SpriteBatch batch;
+    /** Ressources du jeu (atlas, images, musiques), chargées en tâche de fond*/
+    private GameAssets assets;
+    /** Ecran affiché pendant le chargement des ressources*/
+    private LoadingScreen loadingScreen;
     /**Notre joueur*/
     private Student student;
     /** La caméra qui permet de suivre le joueur et la carte*/
     private OrthographicCamera camera;
     /**Adaptation pour différents écrans*/
     private Viewport viewport;
+    /** Partie du monde visible à cette frame, en pixels : seul ce qui la touche est dessiné*/
+    private final Rectangle view = new Rectangle();
 
     /**Map du jeu*/
     private Board board;
 
-    /**Ennemis présents sur la map, avec des IA différentes*/
-    private Florian florian;
-    private Lyann lyann;
-    private Guillaume guillaume;
-    private Adrien adrien;
-
-    /** Score du joueur*/
-    private int score = 0;
-    /**Nombre de vies*/
-    private int lives = 3;
-    /** Texture utilisé pour afficher les coeurs de vie*/
-    private Texture heart;
-
-    /** Timer qui empêche le joueur de subir plusieurs dégâts */
-    private float hitCooldown = 0f;
+    /**Animations et affichage des ennemis présents sur la map, avec des IA différentes*/
+    private EnemyAnimationSystem enemySprites;
+
+    /** Image utilisée pour afficher les coeurs de vie*/
+    private TextureRegion heart;
+
     /** Effet visuel quand le joueur est touché*/
     private float damageFlash = 0f;
 
     /**Police du texte*/
     private BitmapFont font;
+    /** Caméra en coordonnées écran, partagée par l'UI (score, victoire, game over), mise à jour dans resize*/
+    private final OrthographicCamera uiCamera = new OrthographicCamera();
+    /** Score et coeurs de vie, mis en page seulement quand ils changent*/
+    private Hud hud;
+    /** Durée de chaque phase des dernières frames de jeu*/
+    private final FrameProfiler profiler = new FrameProfiler();
+    /** Compteurs de rendu et affichage des mesures (F3)*/
+    private ProfilerOverlay profilerOverlay;
+    /** Rapport des dernières frames quand une frame est trop longue*/
+    private HitchRecorder hitches;
+    /** Durée de frame qui déclenche un rapport, en millisecondes*/
+    private float hitchThreshold = HitchRecorder.DEFAULT_THRESHOLD_MS;
+    /** Bandes de distance des ennemis ({@link ActivityScheduler}) : proche et lointaine en tuiles, intervalle des lointains*/
+    private int nearTiles = ActivityScheduler.DEFAULT_NEAR_TILES;
+    private int farTiles = ActivityScheduler.DEFAULT_FAR_TILES;
+    private int farInterval = ActivityScheduler.DEFAULT_FAR_INTERVAL;
+    /** Threads qui choisissent les directions des ennemis, 1 pour les choisir sur le thread de rendu*/
+    private int aiThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    /** Threads de décision des ennemis, créés à la première partie, null en séquentiel*/
+    private ForkJoinPool aiPool;
     /**  Ecran d'accueil*/
     private MenuScreen menuScreen;
     /** Afin de savoir si on est dans le menu*/
@@ -78,9 +147,23 @@ public class Core implements ApplicationListener {
     /** gestion de la musique*/
     private GameMusic audio;
 
+    /**
+     * Jeu simulé à {@link #DEFAULT_TICK_RATE} pas par seconde.
+     */
+    public Core() {
+        this(DEFAULT_TICK_RATE);
+    }
+
+    /**
+     * @param tickRate nombre de pas de simulation par seconde, indépendant de la fréquence d'affichage
+     */
+    public Core(int tickRate) {
+        this.loop = new FixedStepLoop(tickRate, MAX_STEPS_PER_FRAME);
+    }
+
     /**
      * Méthode appelée lorsqu'on lance le jeu.
-     * Gère la police, la musique et le menu.
+     * Lance le chargement des ressources en tâche de fond et affiche l'écran de chargement.
      */
     @Override
     public void create() {
@@ -91,8 +174,27 @@ public class Core implements ApplicationListener {
         /** Police*/
         font = new BitmapFont();
         font.getData().setScale(2f);
+        uiCamera.setToOrtho(false, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        profilerOverlay = new ProfilerOverlay(profiler);
+        profiler.setTracer(tracer);
+        hitches = new HitchRecorder(profiler, Gdx.files.external(HitchRecorder.REPORT_DIR).file().toPath(), hitchThreshold);
+        /** toutes les ressources listées dans assets.txt*/
+        assets = new GameAssets();
+        assets.setTracer(tracer);
+        assets.queueAll();
+        loadingScreen = new LoadingScreen(assets);
+    }
+
+    /**
+     * Appelée une fois toutes les ressources chargées.
+     * Gère la musique et le menu.
+     */
+    private void onAssetsLoaded() {
+        loadingScreen.dispose();
+        loadingScreen = null;
+
         /** module audio*/
-        audio = new GameMusic();
+        audio = new GameMusic(assets);
         /** menu*/
         menuScreen = new MenuScreen(this);
         inMenu = true;
@@ -110,40 +212,175 @@ public class Core implements ApplicationListener {
 
         /** Musique du game play*/
         audio.playGame();
+        /** partie précédente : ses objets rendent leurs références sur les ressources*/
+        if (board != null) board.dispose();
+        if (student != null) student.dispose();
+        if (enemySprites != null) enemySprites.dispose();
         /** charge la map et on récupère le joueur*/
-        board = new Board("map/map.txt");
-        student = board.getStudent();
+        board = new Board("map/map.txt", assets, tracer);
+        /** chemins des ennemis, relus depuis le cache disque s'ils ont déjà été calculés pour cette map*/
+        NavigationService navigation = AllPairsTable.cached(board.getMap(), Gdx.files.external(NAVIGATION_CACHE).file().toPath());
+        /** trop de tuiles pour la table : recherche par blocs*/
+        if (navigation == null) navigation = new HierarchicalPathfinder(board.getMap());
+        world = new World(board.getMap(), navigation);
+        world.setListener(new GameEvents());
+        world.setProfiler(profiler);
+        world.setTracer(tracer);
+        world.setActivity(new ActivityScheduler(nearTiles, farTiles, farInterval));
+        if (aiThreads > 1 && aiPool == null) aiPool = new ForkJoinPool(aiThreads);
+        world.setDecisionPool(aiPool);
+        loop.reset();
+        simulation = new Simulation(world, input, () -> Gdx.graphics.getDeltaTime(), loop);
+        student = new Student(world.getPlayer(), assets);
         /** asset des coeurs de vie*/
-        heart = new Texture("map/coeur.png");
-        /** caméra centré sur la map*/
+        heart = assets.region("map/coeur");
+        hud = new Hud(font, heart);
+        /** caméra qui suit l'étudiante, placée à chaque frame*/
         camera = new OrthographicCamera();
         viewport = new FitViewport(1900, 1000, camera);
         viewport.update(Gdx.graphics.getWidth(), Gdx.graphics.getHeight(), true);
-
-        camera.position.set(board.getMapWidth() / 2f, board.getMapHeight() / 2f, 0);
-        camera.update();
+        followStudent(1f);
 
         /**Position des ennemis*/
         float cx = board.getMapWidth() / 2f - Board.TILE_SIZE / 2f;
         float cy = board.getMapHeight() / 2f - Board.TILE_SIZE / 2f;
         /** Gestion écran victoire*/
         win = new Win(this);
-        /** Ennemis*/
-        florian = new Florian(cx, cy, 150f, board, student);
-        lyann = new Lyann(cx + Board.TILE_SIZE, cy, 150f, board, student);
-        guillaume = new Guillaume(cx - Board.TILE_SIZE, cy, 150f, board, student);
-        adrien = new Adrien(cx, cy - Board.TILE_SIZE, 150f, board, student);
+        /** Ennemis : un personnage par IA, partagé par tous ses ennemis*/
+        Enemies florian = new Florian(assets);
+        Enemies lyann = new Lyann(assets);
+        Enemies guillaume = new Guillaume(assets);
+        Enemies adrien = new Adrien(assets);
+        enemySprites = new EnemyAnimationSystem(world.getEnemies());
+        enemySprites.setSkin(florian);
+        enemySprites.setSkin(lyann);
+        enemySprites.setSkin(guillaume);
+        enemySprites.setSkin(adrien);
+        florian.spawn(world, cx, cy, ENEMY_SPEED);
+        lyann.spawn(world, cx + Board.TILE_SIZE, cy, ENEMY_SPEED);
+        guillaume.spawn(world, cx - Board.TILE_SIZE, cy, ENEMY_SPEED);
+        adrien.spawn(world, cx, cy - Board.TILE_SIZE, ENEMY_SPEED);
+        spawnHorde(florian, lyann, guillaume, adrien);
         /** Gestion écran défaite*/
         loseScreen = new Lose(this);
         /**variables du jeu*/
-        score = 0;
-        lives = 3;
-        hitCooldown = 0f;
         damageFlash = 0f;
         /** on sort du menu*/
         inMenu = false;
     }
 
+    /**
+     * Mode horde : ajoute {@link #horde} ennemis sur des tuiles traversables tirées au hasard
+     * (graine {@link #hordeSeed}, la même horde à chaque partie), avec les personnages du jeu
+     * à tour de rôle. Aucun ne sort à moins de {@link #HORDE_SAFE_TILES} tuiles du départ du
+     * joueur ; un ennemi sans tuile assez loin après {@link #HORDE_TRIES} tirages n'est pas ajouté.
+     */
+    private void spawnHorde(Enemies... skins) {
+        GameMap map = world.getMap();
+        int walkable = map.getWalkableCount();
+        int spawn = map.getSpawnIndex();
+        int width = map.getWidth();
+        Random random = new Random(hordeSeed);
+        int skipped = 0;
+        for (int i = 0; i < horde; i++) {
+            int index = -1;
+            for (int t = 0; t < HORDE_TRIES && walkable > 0 && index < 0; t++) {
+                int tile = map.walkableTile(random.nextInt(walkable));
+                if (spawn < 0 || Math.max(Math.abs(tile % width - spawn % width), Math.abs(tile / width - spawn / width)) >= HORDE_SAFE_TILES)
+                    index = tile;
+            }
+            if (index < 0) {
+                skipped++;
+                continue;
+            }
+            skins[i % skins.length].spawn(world, map.worldX(index), map.worldY(index), ENEMY_SPEED);
+        }
+        if (skipped > 0) System.out.println("Horde : " + skipped + " ennemis sans tuile assez loin du départ, non ajoutés");
+    }
+
+    /**
+     * @param horde nombre d'ennemis ajoutés aux 4 du jeu à chaque partie (mode horde), 0 pour aucun
+     */
+    public void setHorde(int horde) {
+        this.horde = Math.max(0, horde);
+    }
+
+    /**
+     * @param seed graine du tirage des tuiles de la horde
+     */
+    public void setHordeSeed(long seed) {
+        this.hordeSeed = seed;
+    }
+
+    /**
+     * @param thresholdMs durée de frame, en millisecondes, au-delà de laquelle les dernières frames
+     * sont écrites dans un rapport ({@link HitchRecorder})
+     * @throws IllegalArgumentException si la durée est négative
+     */
+    public void setHitchThreshold(float thresholdMs) {
+        if (!(thresholdMs >= 0)) throw new IllegalArgumentException("seuil invalide : " + thresholdMs + " ms");
+        this.hitchThreshold = thresholdMs;
+        if (hitches != null) hitches.setThreshold(thresholdMs);
+    }
+
+    /**
+     * À appeler avant le lancement de l'application.
+     * @param threads threads qui choisissent les directions des ennemis, 0 ou 1 pour les choisir
+     * sur le thread de rendu (séquentiel)
+     */
+    public void setAiThreads(int threads) {
+        this.aiThreads = Math.max(1, threads);
+    }
+
+    /**
+     * Bandes de distance des ennemis, appliquées à la prochaine partie ({@link ActivityScheduler}).
+     * @param nearTiles distance jusqu'à laquelle un ennemi est mis à jour à chaque pas, en tuiles
+     * @param farTiles distance au-delà de laquelle il dort, en tuiles
+     * @param farInterval un ennemi lointain est déplacé un pas sur ce nombre
+     */
+    public void setActivityBands(int nearTiles, int farTiles, int farInterval) {
+        /** bandes vérifiées tout de suite plutôt qu'au début de la partie*/
+        ActivityScheduler.validate(nearTiles, farTiles, farInterval);
+        this.nearTiles = nearTiles;
+        this.farTiles = farTiles;
+        this.farInterval = farInterval;
+    }
+
+    /**
+     * À appeler avant le lancement de l'application.
+     * @param tracer reçoit les phases de frame, les décisions des ennemis, les collisions et les chargements
+     */
+    public void setTracer(Tracer tracer) {
+        this.tracer = tracer == null ? Tracer.NONE : tracer;
+    }
+
+    /**
+     * Centre la caméra sur l'étudiante (position affichée), sans montrer l'extérieur de la map,
+     * et met à jour la partie visible du monde.
+     * @param alpha avancement entre le pas précédent (0) et le pas courant (1)
+     */
+    private void followStudent(float alpha) {
+        Player player = world.getPlayer();
+        float halfW = camera.viewportWidth * camera.zoom / 2f;
+        float halfH = camera.viewportHeight * camera.zoom / 2f;
+        float x = follow(player.renderX(alpha) + Player.WIDTH / 2f, halfW, board.getMapWidth());
+        float y = follow(player.renderY(alpha) + Player.HEIGHT / 2f, halfH, board.getMapHeight());
+        camera.position.set(x, y, 0);
+        camera.update();
+        view.set(x - halfW, y - halfH, 2 * halfW, 2 * halfH);
+    }
+
+    /**
+     * @param target position visée sur un axe
+     * @param half moitié de la vue sur cet axe
+     * @param size taille de la map sur cet axe
+     * @return position de la caméra : la cible, bornée à la map, ou le centre si la map est plus petite que la vue
+     */
+    private static float follow(float target, float half, float size) {
+        if (size <= 2 * half) return size / 2f;
+        return MathUtils.clamp(target, half, size - half);
+    }
+
     /**
      * Méthode pour redimenssionner la taille de l'écran.
      * @param width the new width in pixels
@@ -152,9 +389,15 @@ public class Core implements ApplicationListener {
 
     @Override
     public void resize(int width, int height) {
+        if (loadingScreen != null) loadingScreen.resize(width, height);
         if (viewport != null) {
             viewport.update(width, height, true);
         }
+        /** UI en coordonnées écran : caméra et textes mis en page pour la nouvelle taille*/
+        uiCamera.setToOrtho(false, width, height);
+        if (hud != null) hud.resize(width, height);
+        if (win != null) win.resize(width, height);
+        if (loseScreen != null) loseScreen.resize(width, height);
     }
 
     /**
@@ -164,11 +407,27 @@ public class Core implements ApplicationListener {
 
     @Override
     public void render() {
+        hitches.beginFrame();
+
+        /** Chargement des ressources en cours*/
+        if (loadingScreen != null) {
+            hitches.setScreen(HitchRecorder.Screen.LOADING);
+            Gdx.gl.glClearColor(0f, 0f, 0.2f, 1);
+            Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+            if (assets.update()) {
+                onAssetsLoaded();
+            } else {
+                loadingScreen.render(Gdx.graphics.getDeltaTime());
+            }
+            return;
+        }
 
         /** Si le game over est actif, on affiche celui ci*/
         if (loseScreen != null && loseScreen.isActive()) {
+            hitches.setScreen(HitchRecorder.Screen.LOSE);
             Gdx.gl.glClearColor(0, 0, 0, 1);
             Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+            batch.setProjectionMatrix(uiCamera.combined);
             loseScreen.render(batch);
             return;
         }
@@ -177,6 +436,7 @@ public class Core implements ApplicationListener {
 
         /** On affiche le menu*/
         if (inMenu) {
+            hitches.setScreen(optionsScreen != null ? HitchRecorder.Screen.OPTIONS : HitchRecorder.Screen.MENU);
             Gdx.gl.glClearColor(0f, 0f, 0.2f, 1);
             Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
@@ -188,97 +448,73 @@ public class Core implements ApplicationListener {
             return;
         }
 
-        /** Réduction du cooldown des dégats*/
-        if (hitCooldown > 0) hitCooldown -= delta;
-
-        /** Maj de la map et du joueur*/
-        board.update(delta);
-
-        /** Maj des ennemis*/
-        florian.update(delta);
-        lyann.update(delta);
-        guillaume.update(delta);
-        adrien.update(delta);
-
         /**
-         * Détection contact entre joueur et ennemis.
-         * Si touché perte de vie et retour au début (spawn).
+         * Simulation à pas fixe, au plus MAX_STEPS_PER_FRAME pas par frame.
+         * alpha : avancement entre le dernier pas et le suivant, pour interpoler l'affichage
          */
-        if (hitCooldown <= 0) {
-            boolean touched =
-                checkEnemyCollision(florian) ||
-                    checkEnemyCollision(lyann) ||
-                    checkEnemyCollision(guillaume) ||
-                    checkEnemyCollision(adrien);
-
-            if (touched) {
-                lives--;
-                student.resetToStart();
-                /** 1sec d'invincibilité*/
-                hitCooldown = 1.0f;
-                /** flash visuel*/
-                damageFlash = 0.3f;
-
-                /** Si plus de vies on affiche Game over*/
-                if (lives <= 0) {
-                    loseScreen.activate();
-                    audio.playGameOver();  //  musique Game Over
-                }
-            }
-        }
-        /** bonus ramassé, le score augmente*/
-        if (board.checkBonusCollisionAt(student.getX(), student.getY(), student.getWidth(), student.getHeight())) {
-            score += 50;
-        }
-        /** Vérification des conditions de victoire*/
-        win.checkWinCondition(board);
+        hitches.setScreen(win.isWon() ? HitchRecorder.Screen.WIN : HitchRecorder.Screen.GAME);
+        hitches.setEntities(world.getEnemies().size(), board.getRemainingBonuses());
+        profiler.begin(Metric.FRAME);
+        profiler.begin(Metric.SIMULATION);
+        float alpha = simulation.frame();
+        profiler.end(Metric.SIMULATION);
+        ActivityScheduler activity = world.getActivity();
+        profiler.add(Metric.ENEMIES_NEAR, activity.getCount(ActivityScheduler.Band.NEAR));
+        profiler.add(Metric.ENEMIES_FAR, activity.getCount(ActivityScheduler.Band.FAR));
+        profiler.add(Metric.ENEMIES_ASLEEP, activity.getCount(ActivityScheduler.Band.ASLEEP));
+
+        /** animations*/
+        profiler.begin(Metric.ANIMATION);
+        student.update(delta);
+        enemySprites.update(delta);
+        profiler.end(Metric.ANIMATION);
+        profilerOverlay.update(delta);
 
         /** Efface l'écran*/
         Gdx.gl.glClearColor(0, 0, 0, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
         /** maj caméra et rendu de la map*/
-        camera.update();
+        followStudent(alpha);
         viewport.apply();
         batch.setProjectionMatrix(camera.combined);
+        /** fond et mobilier, par blocs chargés autour de la caméra et en avant du joueur*/
+        profiler.begin(Metric.STATIC_LAYER);
+        Player player = world.getPlayer();
+        board.renderStatic(camera, player.isMoving() ? player.getDirection() : null);
+        profiler.end(Metric.STATIC_LAYER);
 
         batch.begin();
-        board.render(batch);
+        profiler.begin(Metric.BOARD);
+        board.render(batch, view);
+        profiler.end(Metric.BOARD);
         /** dessin des ennemis*/
-        florian.draw(batch);
-        lyann.draw(batch);
-        guillaume.draw(batch);
-        adrien.draw(batch);
+        profiler.begin(Metric.ENTITIES);
+        enemySprites.draw(batch, alpha, view);
         /** Effet visuel quand le joueur est touché par un ennemis.*/
+        float hitCooldown = world.getHitCooldown();
         if (hitCooldown > 0 && damageFlash > 0) {
             if ((int)(hitCooldown * 10) % 2 == 0) {
                 batch.setColor(1, 1, 1, 0.4f);
             }
         }
 
-        student.draw(batch);
+        student.draw(batch, alpha);
         batch.setColor(1, 1, 1, 1);
         batch.end();
+        profiler.end(Metric.ENTITIES);
+        profilerOverlay.afterBatch(batch);
 
         /** rendu coordonnées  écran (UI) */
-        OrthographicCamera uiCam = new OrthographicCamera();
-        uiCam.setToOrtho(false, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
-        batch.setProjectionMatrix(uiCam.combined);
+        batch.setProjectionMatrix(uiCamera.combined);
 
         batch.begin();
+        profiler.begin(Metric.HUD);
         /**
-         * affichage du score au centre en bas
+         * affichage du score au centre en bas et des coeurs de vies
          */
-        GlyphLayout layout = new GlyphLayout(font, "Score : " + score);
-        float tx = (Gdx.graphics.getWidth() - layout.width) / 2f;
-        float ty = 30 + layout.height;
-        font.draw(batch, layout, tx, ty);
-        /** Affichage des coeurs de vies*/
-        float heartX = tx + layout.width + 10;
-        float heartY = ty - layout.height;
-
-        for (int i = 0; i < lives; i++) {
-            batch.draw(heart, heartX + i * 45, heartY, 40, 40);
-        }
+        int score = world.getScore();
+        hud.update(score, world.getLives());
+        hud.draw(batch);
         /** on affiche l'écran de victoire si c'est gagné*/
         if (win.isWon()) win.render(batch, delta, score);
         /** lors d'une rencontre student et ennemis coeur rouge en gros et flash rouge*/
@@ -288,28 +524,44 @@ public class Core implements ApplicationListener {
             batch.draw(heart, 0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
             batch.setColor(1, 1, 1, 1);
         }
+        profiler.end(Metric.HUD);
+        /** mesures par phase (F3)*/
+        profilerOverlay.draw(batch);
 
         batch.end();
+        profilerOverlay.afterBatch(batch);
+        profiler.end(Metric.FRAME);
+        profilerOverlay.endFrame(batch);
     }
 
     /**
-     * Vérifie si le student touche un objet soit collision
-     * @param e student ennemis touché
-     * @return true si collision
+     * Réactions de l'affichage et du son aux événements de la partie.
      */
-    private boolean checkEnemyCollision(Entity e) {
-        if (e == null || student == null) return false;
+    private class GameEvents implements WorldListener {
 
-        float sx = student.getX(), sy = student.getY();
-        float sw = student.getWidth(), sh = student.getHeight();
+        /** flash visuel quand un ennemi touche le joueur*/
+        @Override
+        public void onPlayerHit(int livesLeft) {
+            damageFlash = 0.3f;
+        }
 
-        float ex = e.getX(), ey = e.getY();
-        float ew = e.getWidth(), eh = e.getHeight();
+        /** Plus de vies, on affiche Game over*/
+        @Override
+        public void onGameOver() {
+            loseScreen.activate();
+            audio.playGameOver();  //  musique Game Over
+        }
 
-        boolean ox = sx < ex + ew && sx + sw > ex;
-        boolean oy = sy < ey + eh && sy + sh > ey;
+        @Override
+        public void onBonusCollected(int tileIndex) {
+            board.getBonus().onCollected();
+        }
 
-        return ox && oy;
+        /** Tous les bonus ramassés, écran de victoire*/
+        @Override
+        public void onWon() {
+            win.checkWinCondition(board);
+        }
     }
 
     /**
@@ -317,9 +569,6 @@ public class Core implements ApplicationListener {
      */
     public void restartGame() {
         System.out.println("RESTART GAME");
-        lives = 3;
-        score = 0;
-        hitCooldown = 0;
         damageFlash = 0;
 
         startGame();
@@ -365,8 +614,13 @@ public class Core implements ApplicationListener {
         System.out.println(soundMuted ? "Son coupé" : "Son activé");
     }
 
-    @Override public void pause() {}
-    @Override public void resume() {}
+    /** Le temps passé en pause n'est pas une saccade*/
+    @Override public void pause() {
+        if (hitches != null) hitches.pause();
+    }
+    @Override public void resume() {
+        if (hitches != null) hitches.pause();
+    }
 
     /**
      * Libère les ressources
@@ -374,21 +628,46 @@ public class Core implements ApplicationListener {
      */
     @Override
     public void dispose() {
+        writeProfile();
+        if (profilerOverlay != null) profilerOverlay.dispose();
+        if (hitches != null) hitches.dispose();
+        if (aiPool != null) aiPool.shutdown();
         if (batch != null) batch.dispose();
         if (board != null) board.dispose();
+        if (student != null) student.dispose();
+        if (enemySprites != null) enemySprites.dispose();
         if (font != null) font.dispose();
-        if (heart != null) heart.dispose();
-        if (florian != null) florian.dispose();
-        if (lyann != null) lyann.dispose();
-        if (guillaume != null) guillaume.dispose();
-        if (adrien != null) adrien.dispose();
         if (loseScreen != null) loseScreen.dispose();
         if (menuScreen != null) menuScreen.dispose();
         if (win != null) win.dispose();
+        if (audio != null) audio.dispose();
+        if (loadingScreen != null) loadingScreen.dispose();
+        if (assets != null) assets.dispose();
+        tracer.close();
+    }
+
+    /**
+     * Écrit le résumé des mesures par phase dans {@link #PROFILE_CSV}, si une partie a été jouée.
+     */
+    private void writeProfile() {
+        if (profiler.getFrames() == 0) return;
+        try (Writer out = Gdx.files.external(PROFILE_CSV).writer(false, "UTF-8")) {
+            profiler.writeCsv(out);
+            System.out.println("Mesures par phase : " + Gdx.files.external(PROFILE_CSV).file().getAbsolutePath());
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Mesures par phase non écrites (" + e.getMessage() + ")");
+        }
     }
 
     public GameMusic getAudio() {
         return audio;
     }
+
+    /**
+     * @return ressources partagées du jeu
+     */
+    public GameAssets getAssets() {
+        return assets;
+    }
 }
 
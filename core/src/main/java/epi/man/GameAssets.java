@@ -0,0 +1,187 @@
+package epi.man;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.MusicLoader;
+import com.badlogic.gdx.assets.loaders.TextureAtlasLoader;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.ObjectSet;
+
+import epi.man.sim.Tracer;
+
+/**
+ * Service central des ressources du jeu, construit sur l'{@link AssetManager} de libGDX.
+ * Tout ce qui est listé dans {@code assets.txt} est mis en file d'attente puis décodé
+ * sur un thread de fond ; l'écran de chargement suit la progression avec {@link #update()}.
+ * Les ressources sont partagées : chaque appel à {@link #retain(String, Class)} ajoute une
+ * référence et {@link #release(String)} en retire une, la ressource est libérée à la dernière.
+ * Le chargement de {@link #queueAll()} garde sa propre référence jusqu'à {@link #dispose()} ;
+ * chaque objet du jeu prend en plus les siennes (atlas, parquet, musiques) et les rend dans
+ * son {@code dispose()}, puis lit ses images avec {@link #region(String)}.
+ */
+public class GameAssets {
+
+    /** Atlas des sprites du jeu, produit par la tâche gradle packTextures*/
+    public static final String ATLAS = "atlas/game.atlas";
+
+    /** Temps maximal passé à charger par frame, en millisecondes*/
+    private static final int UPDATE_BUDGET_MS = 12;
+
+    /** Gestionnaire de libGDX qui charge et compte les références*/
+    private final AssetManager manager = new AssetManager();
+
+    /** Reçoit la durée de chargement de chaque ressource*/
+    private Tracer tracer = Tracer.NONE;
+    /** Fin du chargement précédent (ou début de la file), en nanosecondes*/
+    private long lastLoaded;
+
+    /**
+     * À appeler avant {@link #queueAll()}.
+     * @param tracer reçoit la durée de chargement de chaque ressource, null pour aucun
+     */
+    public void setTracer(Tracer tracer) {
+        this.tracer = tracer == null ? Tracer.NONE : tracer;
+    }
+
+    /**
+     * Met en file d'attente toutes les ressources listées dans {@code assets.txt}.
+     * Les images déjà présentes dans un atlas ne sont pas chargées une seconde fois.
+     */
+    public void queueAll() {
+        String[] paths = Gdx.files.internal("assets.txt").readString().split("\n");
+
+        /** noms des régions des atlas listés, ex: "map/table"*/
+        ObjectSet<String> packed = new ObjectSet<>();
+        for (String line : paths) {
+            String path = line.trim();
+            if (!path.endsWith(".atlas")) continue;
+            FileHandle file = Gdx.files.internal(path);
+            TextureAtlas.TextureAtlasData data = new TextureAtlas.TextureAtlasData(file, file.parent(), false);
+            for (TextureAtlas.TextureAtlasData.Region region : data.getRegions()) packed.add(region.name);
+        }
+
+        lastLoaded = System.nanoTime();
+
+        for (String line : paths) {
+            String path = line.trim();
+            String ext = extension(path);
+
+            if (ext.equals("atlas")) {
+                manager.load(path, TextureAtlas.class, traced(new TextureAtlasLoader.TextureAtlasParameter()));
+            } else if (ext.equals("png") || ext.equals("jpg")) {
+                if (!packed.contains(path.substring(0, path.length() - 4))) {
+                    manager.load(path, Texture.class, traced(new TextureLoader.TextureParameter()));
+                }
+            } else if (ext.equals("mp3") || ext.equals("ogg") || ext.equals("wav")) {
+                manager.load(path, Music.class, traced(new MusicLoader.MusicParameter()));
+            }
+        }
+    }
+
+    /**
+     * Paramètres de chargement qui signalent la fin du chargement au {@link #tracer}.
+     * L'AssetManager termine les ressources une par une : la durée est le temps écoulé
+     * depuis la ressource précédente.
+     * @return les paramètres, null (paramètres par défaut) sans tracer
+     */
+    private <T> AssetLoaderParameters<T> traced(AssetLoaderParameters<T> params) {
+        if (tracer == Tracer.NONE) return null;
+        params.loadedCallback = (assetManager, fileName, type) -> {
+            long now = System.nanoTime();
+            tracer.assetLoaded(fileName, type.getSimpleName(), now - lastLoaded);
+            lastLoaded = now;
+        };
+        return params;
+    }
+
+    /**
+     * Avance le chargement pendant un court budget de temps.
+     * @return true quand tout est chargé
+     */
+    public boolean update() {
+        return manager.update(UPDATE_BUDGET_MS);
+    }
+
+    /**
+     * @return progression du chargement entre 0 et 1
+     */
+    public float getProgress() {
+        return manager.getProgress();
+    }
+
+    /**
+     * Région de l'atlas du jeu.
+     * @param name nom de la région, chemin sans extension (ex: "enemies/adridos1")
+     * @return la région partagée
+     */
+    public TextureRegion region(String name) {
+        TextureRegion region = manager.get(ATLAS, TextureAtlas.class).findRegion(name);
+        if (region == null) throw new IllegalArgumentException("Région absente de l'atlas : " + name);
+        return region;
+    }
+
+    /**
+     * @param path chemin de l'image
+     * @return la texture partagée
+     */
+    public Texture texture(String path) {
+        return manager.get(path, Texture.class);
+    }
+
+    /**
+     * @param path chemin de la musique
+     * @return la musique partagée, null si elle n'est pas fournie avec le jeu
+     */
+    public Music music(String path) {
+        return manager.isLoaded(path, Music.class) ? manager.get(path, Music.class) : null;
+    }
+
+    /**
+     * Ajoute une référence sur une ressource et la charge si besoin (de façon synchrone).
+     * À appeler une fois le chargement de {@link #queueAll()} terminé.
+     * @return la ressource partagée
+     */
+    public <T> T retain(String path, Class<T> type) {
+        boolean loaded = manager.isLoaded(path, type);
+        long start = System.nanoTime();
+        manager.load(path, type);
+        /** une ressource déjà chargée ne compte sa nouvelle référence qu'au passage de la file*/
+        manager.finishLoading();
+        if (!loaded) tracer.assetLoaded(path, type.getSimpleName(), System.nanoTime() - start);
+        return manager.get(path, type);
+    }
+
+    /**
+     * Retire une référence, la ressource est libérée quand plus personne ne l'utilise.
+     * @param path chemin de la ressource
+     */
+    public void release(String path) {
+        if (manager.isLoaded(path)) manager.unload(path);
+    }
+
+    /**
+     * @param path chemin de la ressource
+     * @return nombre de références en cours
+     */
+    public int getReferenceCount(String path) {
+        return manager.isLoaded(path) ? manager.getReferenceCount(path) : 0;
+    }
+
+    /**
+     * Libère toutes les ressources.
+     */
+    public void dispose() {
+        manager.dispose();
+    }
+
+    private static String extension(String path) {
+        int dot = path.lastIndexOf('.');
+        return dot < 0 ? "" : path.substring(dot + 1).toLowerCase();
+    }
+}
@@ -1,11 +1,15 @@
 package epi.man;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
 
 public class GameMusic {
 
+    private static final String MENU = "music/menu.mp3";
+    private static final String GAMEPLAY = "music/gameplay.mp3";
+    private static final String GAME_OVER = "music/lose.mp3";
+    private static final String WIN = "music/win.mp3";
+
     private Music menuMusic;
     private Music gameplayMusic;
     private Music gameOverMusic;
@@ -15,60 +19,80 @@ public class GameMusic {
 
     private Music currentMusic;
 
-    public GameMusic() {
-        menuMusic = Gdx.audio.newMusic(Gdx.files.internal("music/menu.mp3"));
-        gameplayMusic = Gdx.audio.newMusic(Gdx.files.internal("music/gameplay.mp3"));
-        gameOverMusic = Gdx.audio.newMusic(Gdx.files.internal("music/lose.mp3"));
-        winMusic = Gdx.audio.newMusic(Gdx.files.internal("music/win.mp3"));
+    private final GameAssets assets;
+
+    /**
+     * Prend une référence sur les musiques chargées par le service de ressources.
+     * @param assets ressources partagées du jeu
+     */
+    public GameMusic(GameAssets assets) {
+        this.assets = assets;
+        menuMusic = retain(MENU);
+        gameplayMusic = retain(GAMEPLAY);
+        gameOverMusic = retain(GAME_OVER);
+        winMusic = retain(WIN);
 
         // Charge le son de perte de vie
 //        loseLifeSound = Gdx.audio.newSound(Gdx.files.internal("music/lose_life.wav"));
     }
 
+    /**
+     * @return la musique, null si elle n'est pas fournie avec le jeu (aucune référence prise)
+     */
+    private Music retain(String path) {
+        return assets.music(path) == null ? null : assets.retain(path, Music.class);
+    }
+
+    private void release(String path, Music music) {
+        if (music != null) assets.release(path);
+    }
+
     private void stopCurrent() {
         if (currentMusic != null) {
             currentMusic.stop();
         }
     }
 
-    public void playMenu() {
+    /**
+     * Lance une musique, ignorée si le fichier n'est pas fourni avec le jeu.
+     */
+    private void play(Music music, boolean looping) {
         stopCurrent();
-        currentMusic = menuMusic;
-        currentMusic.setLooping(true);
+        currentMusic = music;
+        if (currentMusic == null) return;
+        currentMusic.setLooping(looping);
         currentMusic.play();
     }
 
+    public void playMenu() {
+        play(menuMusic, true);
+    }
+
     public void playGame() {
-        stopCurrent();
-        currentMusic = gameplayMusic;
-        currentMusic.setLooping(true);
-        currentMusic.play();
+        play(gameplayMusic, true);
     }
 
     public void playGameOver() {
-        stopCurrent();
-        currentMusic = gameOverMusic;
-        currentMusic.setLooping(false);
-        currentMusic.play();
+        play(gameOverMusic, false);
     }
 
     public void playWin() {
-        stopCurrent();
-        currentMusic = winMusic;
-        currentMusic.setLooping(false);
-        currentMusic.play();
+        play(winMusic, false);
     }
 
     public void playLoseLife() {
         loseLifeSound.play();
     }
 
+    /**
+     * Arrête la musique et rend les références prises sur les flux.
+     */
     public void dispose() {
-        menuMusic.dispose();
-        gameplayMusic.dispose();
-        gameOverMusic.dispose();
-        winMusic.dispose();
-        loseLifeSound.dispose();
+        stopCurrent();
+        release(MENU, menuMusic);
+        release(GAMEPLAY, gameplayMusic);
+        release(GAME_OVER, gameOverMusic);
+        release(WIN, winMusic);
     }
 }
 
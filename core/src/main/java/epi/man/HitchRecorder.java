@@ -0,0 +1,274 @@
+package epi.man;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import epi.man.sim.FrameProfiler;
+import epi.man.sim.Metric;
+
+/**
+ * Enregistreur de saccades, toujours actif.
+ * Garde dans des tampons circulaires alloués une fois les {@link #FRAMES} dernières frames :
+ * durée depuis la frame précédente, durée des phases ({@link FrameProfiler}), ramasse-miettes
+ * (nombre et temps, relus dans les GarbageCollectorMXBean), mémoire utilisée, ennemis et bonus
+ * restants, écran affiché.
+ *
+ * Quand une frame dépasse le seuil, les tampons sont copiés et un thread de fond écrit
+ * un rapport CSV dans {@link #REPORT_DIR}. Si le rapport précédent est encore en cours
+ * d'écriture, la saccade est seulement comptée.
+ */
+public class HitchRecorder {
+
+    /** Écran affiché pendant une frame */
+    public enum Screen { LOADING, MENU, OPTIONS, GAME, WIN, LOSE }
+
+    /** Seuil par défaut, en millisecondes */
+    public static final float DEFAULT_THRESHOLD_MS = 50f;
+    /** Frames gardées (un peu plus de 4 secondes à 60 images par seconde) */
+    public static final int FRAMES = 256;
+    /** Dossier (dans le dossier utilisateur) des rapports */
+    public static final String REPORT_DIR = ".epi-man/hitches";
+
+    private static final Screen[] SCREENS = Screen.values();
+    private static final Metric[] PHASES = timingMetrics();
+
+    private final FrameProfiler profiler;
+    private final Path directory;
+    private long threshold;
+
+    /** Frames gardées, indexées par numéro de frame % {@link #FRAMES} */
+    private final Frames ring = new Frames();
+    /** Copie des tampons pour le thread d'écriture */
+    private final Frames snapshot = new Frames();
+    /** true pendant l'écriture de {@link #snapshot} */
+    private final AtomicBoolean writing = new AtomicBoolean();
+    private ExecutorService writer;
+
+    private final GarbageCollectorMXBean[] collectors;
+    private final Runtime runtime = Runtime.getRuntime();
+    private long gcCount, gcTime;
+
+    /** Frames terminées depuis la création */
+    private long frames = 0;
+    /** Début de la frame en cours, 0 si aucune (première frame ou reprise après une pause) */
+    private long frameStart = 0;
+    /** Frames du profiler à la fin de la frame précédente */
+    private long profiledFrames;
+
+    /** État de la frame en cours */
+    private Screen screen = Screen.LOADING;
+    private int enemies, bonuses;
+
+    /** Saccades non écrites, le rapport précédent étant en cours d'écriture */
+    private int dropped;
+
+    /**
+     * @param profiler durée des phases de jeu
+     * @param directory dossier des rapports, créé au premier rapport
+     * @param thresholdMs durée de frame au-delà de laquelle un rapport est écrit, en millisecondes
+     */
+    public HitchRecorder(FrameProfiler profiler, Path directory, float thresholdMs) {
+        this.profiler = profiler;
+        this.directory = directory;
+        setThreshold(thresholdMs);
+        List<GarbageCollectorMXBean> beans = ManagementFactory.getGarbageCollectorMXBeans();
+        this.collectors = beans.toArray(new GarbageCollectorMXBean[0]);
+        readCollectors();
+        this.profiledFrames = profiler.getFrames();
+    }
+
+    /** @param thresholdMs durée de frame au-delà de laquelle un rapport est écrit, en millisecondes */
+    public void setThreshold(float thresholdMs) {
+        this.threshold = (long) (thresholdMs * 1_000_000L);
+    }
+
+    /**
+     * Début d'une frame, en haut de {@code render()} : termine la frame précédente
+     * et écrit un rapport si elle a dépassé le seuil.
+     */
+    public void beginFrame() {
+        long now = System.nanoTime();
+        if (frameStart != 0) endFrame(now - frameStart);
+        frameStart = now;
+    }
+
+    /**
+     * La prochaine frame ne sera pas mesurée (application en pause, fenêtre réduite).
+     */
+    public void pause() {
+        frameStart = 0;
+    }
+
+    /** @param screen écran affiché pendant la frame en cours */
+    public void setScreen(Screen screen) {
+        this.screen = screen;
+    }
+
+    /**
+     * @param enemies ennemis de la partie
+     * @param bonuses bonus restants
+     */
+    public void setEntities(int enemies, int bonuses) {
+        this.enemies = enemies;
+        this.bonuses = bonuses;
+    }
+
+    private void endFrame(long duration) {
+        long lastCount = gcCount, lastTime = gcTime;
+        readCollectors();
+
+        int slot = (int) (frames % FRAMES);
+        ring.duration[slot] = duration;
+        ring.gcCount[slot] = gcCount - lastCount;
+        ring.gcTime[slot] = gcTime - lastTime;
+        ring.heap[slot] = runtime.totalMemory() - runtime.freeMemory();
+        ring.screen[slot] = (byte) screen.ordinal();
+        ring.enemies[slot] = enemies;
+        ring.bonuses[slot] = bonuses;
+        // phases : seulement si le profiler a enregistré une frame de jeu depuis
+        boolean profiled = profiler.getFrames() != profiledFrames;
+        profiledFrames = profiler.getFrames();
+        for (int m = 0; m < PHASES.length; m++) {
+            ring.phases[m][slot] = profiled ? profiler.last(PHASES[m]) : 0;
+        }
+        frames++;
+
+        if (duration > threshold && frames > 1) report();
+    }
+
+    /** Totaux de tous les ramasse-miettes depuis le lancement. */
+    private void readCollectors() {
+        long count = 0, time = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            count += Math.max(0, collector.getCollectionCount());
+            time += Math.max(0, collector.getCollectionTime());
+        }
+        gcCount = count;
+        gcTime = time;
+    }
+
+    /** Copie les tampons dans l'ordre des frames et confie l'écriture au thread de fond. */
+    private void report() {
+        if (!writing.compareAndSet(false, true)) {
+            dropped++;
+            return;
+        }
+        int n = (int) Math.min(frames, FRAMES);
+        long first = frames - n;
+        for (int k = 0; k < n; k++) {
+            snapshot.copy(ring, (int) ((first + k) % FRAMES), k);
+        }
+        snapshot.count = n;
+        snapshot.first = first;
+        snapshot.dropped = dropped;
+        dropped = 0;
+
+        if (writer == null) {
+            writer = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task, "hitch-recorder");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        writer.execute(this::write);
+    }
+
+    /** Écrit {@link #snapshot}, sur le thread de fond. */
+    private void write() {
+        Frames s = snapshot;
+        int last = s.count - 1;
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+        Path file = directory.resolve("hitch-" + stamp + "-" + (s.first + last) + ".csv");
+        try {
+            Files.createDirectories(directory);
+            try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                out.write("# frame " + (s.first + last) + " : " + millis(s.duration[last]) + " ms (seuil "
+                    + millis(threshold) + " ms), ecran " + SCREENS[s.screen[last]] + "\n");
+                out.write("# " + s.count + " frames, saccades non ecrites depuis le rapport precedent : " + s.dropped + "\n");
+                out.write("frame,duration_ms,screen,enemies,bonuses,heap_kb,gc_count,gc_ms");
+                for (Metric phase : PHASES) out.write("," + phase.name().toLowerCase() + "_ms");
+                out.write('\n');
+
+                StringBuilder line = new StringBuilder();
+                for (int k = 0; k < s.count; k++) {
+                    line.setLength(0);
+                    line.append(s.first + k).append(',')
+                        .append(millis(s.duration[k])).append(',')
+                        .append(SCREENS[s.screen[k]]).append(',')
+                        .append(s.enemies[k]).append(',')
+                        .append(s.bonuses[k]).append(',')
+                        .append(s.heap[k] / 1024).append(',')
+                        .append(s.gcCount[k]).append(',')
+                        .append(s.gcTime[k]);
+                    for (int m = 0; m < PHASES.length; m++) line.append(',').append(millis(s.phases[m][k]));
+                    out.append(line).append('\n');
+                }
+            }
+            System.out.println("Saccade de " + millis(s.duration[last]) + " ms, rapport : " + file);
+        } catch (IOException e) {
+            System.out.println("Rapport de saccade non écrit (" + e.getMessage() + ")");
+        } finally {
+            writing.set(false);
+        }
+    }
+
+    /** @return nanosecondes en millisecondes, une décimale */
+    private static String millis(long nanos) {
+        long tenths = nanos / 100_000L;
+        return (tenths / 10) + "." + (tenths % 10);
+    }
+
+    private static Metric[] timingMetrics() {
+        int n = 0;
+        for (Metric metric : Metric.ALL) if (metric.timing) n++;
+        Metric[] phases = new Metric[n];
+        n = 0;
+        for (Metric metric : Metric.ALL) if (metric.timing) phases[n++] = metric;
+        return phases;
+    }
+
+    /** Arrête le thread d'écriture, après le rapport en cours. */
+    public void dispose() {
+        if (writer != null) writer.shutdown();
+    }
+
+    /**
+     * Valeurs de {@link #FRAMES} frames, une colonne par frame.
+     */
+    private static final class Frames {
+        final long[] duration = new long[FRAMES];
+        final long[] gcCount = new long[FRAMES];
+        final long[] gcTime = new long[FRAMES];
+        final long[] heap = new long[FRAMES];
+        final byte[] screen = new byte[FRAMES];
+        final int[] enemies = new int[FRAMES];
+        final int[] bonuses = new int[FRAMES];
+        final long[][] phases = new long[PHASES.length][FRAMES];
+        /** Pour une copie : frames copiées, numéro de la première, saccades non écrites */
+        int count;
+        long first;
+        int dropped;
+
+        void copy(Frames from, int slot, int to) {
+            duration[to] = from.duration[slot];
+            gcCount[to] = from.gcCount[slot];
+            gcTime[to] = from.gcTime[slot];
+            heap[to] = from.heap[slot];
+            screen[to] = from.screen[slot];
+            enemies[to] = from.enemies[slot];
+            bonuses[to] = from.bonuses[slot];
+            for (int m = 0; m < phases.length; m++) phases[m][to] = from.phases[m][slot];
+        }
+    }
+}
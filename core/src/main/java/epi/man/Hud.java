@@ -0,0 +1,94 @@
+package epi.man;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * Interface de la partie en mode retenu : score au centre en bas, coeurs de vie à sa droite.
+ * Le texte est mis en page une seule fois dans un {@link BitmapFontCache} (glyphes déjà placés)
+ * et n'est refait que si le score, le nombre de vies ou la taille de la fenêtre change.
+ * À dessiner avec la caméra UI de {@link Core}, en coordonnées écran.
+ */
+public class Hud {
+
+    /** Taille d'un coeur et écart entre deux coeurs, en pixels écran */
+    private static final float HEART_SIZE = 40, HEART_STEP = 45;
+
+    private final BitmapFont font;
+    private final TextureRegion heart;
+
+    /** Glyphes du score, déjà placés */
+    private final BitmapFontCache scoreCache;
+    private final GlyphLayout layout = new GlyphLayout();
+    private final StringBuilder scoreText = new StringBuilder();
+
+    /** Valeurs affichées et taille de la fenêtre */
+    private int score = -1, lives = -1;
+    private int width, height;
+    /** La mise en page est à refaire */
+    private boolean dirty = true;
+
+    /** Position du premier coeur */
+    private float heartX, heartY;
+
+    /**
+     * @param font police du score
+     * @param heart image d'un coeur de vie
+     */
+    public Hud(BitmapFont font, TextureRegion heart) {
+        this.font = font;
+        this.heart = heart;
+        this.scoreCache = new BitmapFontCache(font, font.usesIntegerPositions());
+        this.width = Gdx.graphics.getWidth();
+        this.height = Gdx.graphics.getHeight();
+    }
+
+    /**
+     * @param score score de la partie
+     * @param lives vies restantes
+     */
+    public void update(int score, int lives) {
+        if (score == this.score && lives == this.lives) return;
+        this.score = score;
+        this.lives = lives;
+        dirty = true;
+    }
+
+    /**
+     * @param width nouvelle largeur de la fenêtre
+     * @param height nouvelle hauteur de la fenêtre
+     */
+    public void resize(int width, int height) {
+        this.width = width;
+        this.height = height;
+        dirty = true;
+    }
+
+    /**
+     * Affiche le score et les coeurs, dans un {@code batch.begin()/end()}.
+     */
+    public void draw(SpriteBatch batch) {
+        if (dirty) layoutText();
+        scoreCache.draw(batch);
+        for (int i = 0; i < lives; i++) {
+            batch.draw(heart, heartX + i * HEART_STEP, heartY, HEART_SIZE, HEART_SIZE);
+        }
+    }
+
+    /** Place le score au centre en bas et les coeurs juste à droite. */
+    private void layoutText() {
+        scoreText.setLength(0);
+        scoreText.append("Score : ").append(score);
+        layout.setText(font, scoreText);
+        float tx = (width - layout.width) / 2f;
+        float ty = 30 + layout.height;
+        scoreCache.setText(layout, tx, ty);
+        heartX = tx + layout.width + 10;
+        heartY = ty - layout.height;
+        dirty = false;
+    }
+}
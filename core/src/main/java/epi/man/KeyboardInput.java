@@ -0,0 +1,23 @@
+package epi.man;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+
+import epi.man.sim.Direction;
+import epi.man.sim.InputSource;
+
+/**
+ * Commandes du joueur lues au clavier (flèches).
+ * Si plusieurs flèches sont enfoncées : droite, puis gauche, puis haut, puis bas.
+ */
+public class KeyboardInput implements InputSource {
+
+    @Override
+    public Direction direction() {
+        if (Gdx.input.isKeyPressed(Input.Keys.RIGHT)) return Direction.RIGHT;
+        if (Gdx.input.isKeyPressed(Input.Keys.LEFT)) return Direction.LEFT;
+        if (Gdx.input.isKeyPressed(Input.Keys.UP)) return Direction.UP;
+        if (Gdx.input.isKeyPressed(Input.Keys.DOWN)) return Direction.DOWN;
+        return null; // aucune touche
+    }
+}
@@ -4,6 +4,7 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.GL20;
 
@@ -16,6 +17,12 @@ public class Lose {
     /** la police du texte utilisé. */
     private BitmapFont font;
 
+    /** Texte pour recommencer*/
+    private static final String RESTART = "Appuie sur ENTER pour recommencer";
+
+    /** Glyphes du texte, placés une fois puis à chaque changement de taille de la fenêtre*/
+    private BitmapFontCache restartText;
+
     /** pour indiquer si le game over est actuellement affiché. */
     private boolean active = false;
 
@@ -36,9 +43,11 @@ public class Lose {
         font = new BitmapFont();
         font.getData().setScale(2.5f);
         font.setColor(Color.WHITE);
+        restartText = new BitmapFontCache(font, font.usesIntegerPositions());
+        resize(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
 
 
-        gameOverImage = new Texture(Gdx.files.internal("map/gameover.png"));
+        gameOverImage = core.getAssets().texture("map/gameover.png");
 
 //        game.getAudio().playLoseLife();
 
@@ -88,11 +97,7 @@ public class Lose {
         );
 
         /** Texte pour recommencer*/
-        font.draw(batch,
-            "Appuie sur ENTER pour recommencer",
-            Gdx.graphics.getWidth() / 2f - 300,
-            100
-        );
+        restartText.draw(batch);
 
         batch.end();
 
@@ -102,13 +107,21 @@ public class Lose {
         }
     }
 
+    /**
+     * Replace le texte pour recommencer en bas au centre.
+     * @param width nouvelle largeur de la fenêtre
+     * @param height nouvelle hauteur de la fenêtre
+     */
+    public void resize(int width, int height) {
+        restartText.setText(RESTART, width / 2f - 300, 100);
+    }
+
     /**
      * Libère les ressources graphiques pour l'écran Game over.
      * fermeture du jeu pour éviter les fuites mémoire.
      */
     public void dispose() {
         font.dispose();
-        gameOverImage.dispose();
     }
 
 
@@ -0,0 +1,120 @@
+package epi.man;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+
+import epi.man.sim.FrameProfiler;
+import epi.man.sim.Metric;
+
+/**
+ * Profilage des frames de jeu : compteurs de rendu et affichage de debug.
+ * - à chaque frame, relève les compteurs du SpriteBatch et du {@link GLProfiler} de libGDX
+ *   dans le {@link FrameProfiler} (les durées de phase y sont mesurées par {@link Core} et {@link epi.man.sim.World})
+ * - F3 affiche ou masque p50 / p95 / p99 / max de chaque mesure en haut à gauche,
+ *   texte refait deux fois par seconde
+ */
+public class ProfilerOverlay {
+
+    /** Touche qui affiche ou masque les mesures */
+    public static final int TOGGLE_KEY = Input.Keys.F3;
+    /** Intervalle entre deux mises à jour du texte, en secondes */
+    private static final float REFRESH = 0.5f;
+
+    private final FrameProfiler profiler;
+    private final GLProfiler gl;
+
+    private final BitmapFont font;
+    private final BitmapFontCache cache;
+    private final StringBuilder text = new StringBuilder();
+    private final long[] values = new long[4];
+
+    private boolean visible = false;
+    private float sinceRefresh = REFRESH;
+
+    /**
+     * Active le GLProfiler de libGDX (les appels OpenGL passent par un intercepteur).
+     * @param profiler reçoit les compteurs de rendu
+     */
+    public ProfilerOverlay(FrameProfiler profiler) {
+        this.profiler = profiler;
+        this.gl = new GLProfiler(Gdx.graphics);
+        this.gl.enable();
+        this.font = new BitmapFont();
+        this.font.setColor(Color.YELLOW);
+        this.cache = new BitmapFontCache(font, font.usesIntegerPositions());
+    }
+
+    /**
+     * Relève les compteurs d'un envoi du batch, juste après son {@code end()}.
+     */
+    public void afterBatch(SpriteBatch batch) {
+        profiler.add(Metric.RENDER_CALLS, batch.renderCalls);
+    }
+
+    /**
+     * Relève les compteurs de la frame et les remet à zéro, puis termine la frame du profiler.
+     */
+    public void endFrame(SpriteBatch batch) {
+        profiler.add(Metric.MAX_SPRITES, batch.maxSpritesInBatch);
+        batch.maxSpritesInBatch = 0;
+        profiler.add(Metric.TEXTURE_BINDINGS, gl.getTextureBindings());
+        profiler.add(Metric.DRAW_CALLS, gl.getDrawCalls());
+        profiler.add(Metric.GL_CALLS, gl.getCalls());
+        gl.reset();
+        profiler.endFrame();
+    }
+
+    /**
+     * Lit la touche {@link #TOGGLE_KEY}.
+     * @param delta temps écoulé depuis la frame précédente
+     */
+    public void update(float delta) {
+        if (Gdx.input.isKeyJustPressed(TOGGLE_KEY)) {
+            visible = !visible;
+            sinceRefresh = REFRESH;
+        }
+        sinceRefresh += delta;
+    }
+
+    /**
+     * Affiche les mesures si elles sont visibles, dans un {@code batch.begin()/end()} en coordonnées écran.
+     */
+    public void draw(SpriteBatch batch) {
+        if (!visible) return;
+        if (sinceRefresh >= REFRESH) {
+            sinceRefresh = 0f;
+            layoutText();
+        }
+        cache.draw(batch);
+    }
+
+    /** Une ligne par mesure : durées en microsecondes, compteurs bruts. */
+    private void layoutText() {
+        text.setLength(0);
+        text.append(profiler.getWindow()).append(" frames   p50 / p95 / p99 / max\n");
+        for (Metric metric : Metric.ALL) {
+            profiler.percentiles(metric, values);
+            text.append(metric.label).append(" : ");
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) text.append(" / ");
+                text.append(metric.timing ? values[i] / 1000 : values[i]);
+            }
+            if (metric.timing) text.append(" us");
+            text.append('\n');
+        }
+        cache.setText(text, 10, Gdx.graphics.getHeight() - 10);
+    }
+
+    /**
+     * Désactive le GLProfiler et libère la police.
+     */
+    public void dispose() {
+        gl.disable();
+        font.dispose();
+    }
+}
@@ -0,0 +1,372 @@
+package epi.man;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import epi.man.sim.Direction;
+import epi.man.sim.GameMap;
+
+/**
+ * Couche statique de la carte (parquet et mobilier), découpée en blocs de {@link #CHUNK_TILES}
+ * tuiles de côté et chargée autour de la caméra : c'est la seule partie de la carte chargée et
+ * libérée par blocs.
+ * - un thread de fond lit les tuiles d'un bloc (pages du fichier .epimap projeté) et range ses
+ *   meubles par image
+ * - le thread de rendu envoie le bloc au GPU dans un {@link SpriteCache} ({@link #BUILDS_PER_FRAME}
+ *   blocs par frame au plus) : un appel de dessin par bloc visible, quel que soit le nombre de tuiles
+ * - au plus {@link #DEFAULT_BUDGET} blocs restent sur le GPU ; au-delà, le bloc utilisé
+ *   il y a le plus longtemps laisse sa place (LRU)
+ * - les blocs dans la direction du joueur sont demandés avant d'être visibles
+ *
+ * Les règles restent sur toute la carte : les tuiles et la traversabilité sont lues dans le
+ * fichier .epimap projeté, dont le système ne garde en mémoire que les pages touchées (un octet
+ * par tuile, un bit pour la traversabilité ; les mêmes tableaux sur le tas si la carte vient du
+ * texte), les bonus restants sont un bit par tuile sur le tas, et la navigation des ennemis
+ * ({@link epi.man.sim.JunctionGraph}) couvre aussi toute la carte. Rien n'est chargé autour
+ * des ennemis.
+ */
+public class StaticLayer {
+
+    /** Côté d'un bloc en tuiles*/
+    public static final int CHUNK_TILES = 32;
+    /** Nombre de blocs gardés sur le GPU par défaut*/
+    public static final int DEFAULT_BUDGET = 64;
+    /** Blocs demandés en avance dans la direction du joueur*/
+    public static final int PREFETCH_CHUNKS = 2;
+    /** Blocs envoyés au GPU par frame au plus*/
+    private static final int BUILDS_PER_FRAME = 4;
+
+    /** État d'un bloc*/
+    private static final byte ABSENT = 0, REQUESTED = 1, RESIDENT = 2;
+
+    private final GameMap map;
+    private final int tileSize;
+    private final int chunksX, chunksY;
+    private final TextureRegion[] regions;
+    private final Texture background;
+    /** Morceau du parquet d'un bloc, réutilisé*/
+    private final TextureRegion backgroundPiece;
+
+    /** État de chaque bloc*/
+    private final byte[] state;
+    /** Emplacement GPU de chaque bloc, -1 si absent*/
+    private final int[] slotOf;
+    /** Dernière frame où le bloc était visible ou attendu*/
+    private final long[] wantedAt;
+
+    /** Emplacements GPU : un cache par bloc chargé*/
+    private final SpriteCache[] slots;
+    private final int[] cacheIds;
+    /** Bloc de chaque emplacement, -1 si libre*/
+    private final int[] chunkOfSlot;
+    /** Dernière frame où l'emplacement a servi*/
+    private final long[] slotUsedAt;
+
+    /** Blocs à lire, pour le thread de fond*/
+    private final ChunkQueue requests;
+    /** Blocs lus, à envoyer au GPU*/
+    private final ConcurrentLinkedQueue<Prepared> ready = new ConcurrentLinkedQueue<>();
+    private final Thread loader;
+
+    private long frame = 0;
+    /** Blocs visibles à la dernière frame : colonnes et lignes (depuis le haut), bornes incluses*/
+    private int visibleX0, visibleX1, visibleY0, visibleY1 = -1;
+
+    /**
+     * Prépare la couche statique, aucun bloc n'est encore chargé.
+     * @param map carte compilée
+     * @param tileSize taille d'une tuile en pixels
+     * @param background texture étirée sur toute la carte
+     * @param regions image de chaque id de tuile, null si rien à dessiner
+     * @param budget nombre de blocs gardés sur le GPU
+     */
+    public StaticLayer(GameMap map, int tileSize, Texture background, TextureRegion[] regions, int budget) {
+        this.map = map;
+        this.tileSize = tileSize;
+        this.background = background;
+        this.backgroundPiece = new TextureRegion(background);
+        this.regions = regions;
+        this.chunksX = (map.getWidth() + CHUNK_TILES - 1) / CHUNK_TILES;
+        this.chunksY = (map.getHeight() + CHUNK_TILES - 1) / CHUNK_TILES;
+
+        int chunks = chunksX * chunksY;
+        state = new byte[chunks];
+        slotOf = new int[chunks];
+        wantedAt = new long[chunks];
+        Arrays.fill(slotOf, -1);
+        requests = new ChunkQueue(chunks);
+
+        /** pas plus d'emplacements que de blocs : la carte fournie n'en a que 2*/
+        int count = Math.max(1, Math.min(budget, chunks));
+        slots = new SpriteCache[count];
+        cacheIds = new int[count];
+        chunkOfSlot = new int[count];
+        slotUsedAt = new long[count];
+        Arrays.fill(chunkOfSlot, -1);
+        for (int i = 0; i < count; i++) slots[i] = new SpriteCache(1 + CHUNK_TILES * CHUNK_TILES, true);
+
+        loader = new Thread(this::loadLoop, "map-streaming");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Demande les blocs visibles et ceux dans la direction du joueur, puis envoie au GPU
+     * les blocs lus par le thread de fond. À la première frame, les blocs visibles sont
+     * chargés tout de suite.
+     * @param camera caméra du monde
+     * @param heading direction du joueur, null s'il est à l'arrêt
+     */
+    public void update(OrthographicCamera camera, Direction heading) {
+        frame++;
+        float halfW = camera.viewportWidth * camera.zoom / 2f;
+        float halfH = camera.viewportHeight * camera.zoom / 2f;
+        visibleX0 = chunkCol(camera.position.x - halfW);
+        visibleX1 = chunkCol(camera.position.x + halfW);
+        visibleY0 = chunkRow(camera.position.y + halfH);
+        visibleY1 = chunkRow(camera.position.y - halfH);
+
+        for (int cy = visibleY0; cy <= visibleY1; cy++)
+            for (int cx = visibleX0; cx <= visibleX1; cx++)
+                want(cy * chunksX + cx);
+
+        if (heading != null) {
+            /** les lignes de blocs sont comptées depuis le haut : UP les fait décroître*/
+            int dx = heading.dx * PREFETCH_CHUNKS, dy = -heading.dy * PREFETCH_CHUNKS;
+            int x0 = clamp(visibleX0 + Math.min(0, dx), chunksX), x1 = clamp(visibleX1 + Math.max(0, dx), chunksX);
+            int y0 = clamp(visibleY0 + Math.min(0, dy), chunksY), y1 = clamp(visibleY1 + Math.max(0, dy), chunksY);
+            for (int cy = y0; cy <= y1; cy++)
+                for (int cx = x0; cx <= x1; cx++)
+                    want(cy * chunksX + cx);
+        }
+
+        if (frame == 1) {
+            for (int cy = visibleY0; cy <= visibleY1; cy++)
+                for (int cx = visibleX0; cx <= visibleX1; cx++)
+                    build(prepare(cy * chunksX + cx));
+        }
+
+        Prepared prepared;
+        for (int built = 0; built < BUILDS_PER_FRAME && (prepared = ready.poll()) != null; ) {
+            if (state[prepared.chunk] != REQUESTED) continue;
+            if (wantedAt[prepared.chunk] != frame) {
+                /** le joueur est déjà loin : on la redemandera*/
+                state[prepared.chunk] = ABSENT;
+                continue;
+            }
+            if (build(prepared)) built++;
+        }
+    }
+
+    /** Marque un bloc comme attendu et le demande au thread de fond s'il n'est pas chargé. */
+    private void want(int chunk) {
+        wantedAt[chunk] = frame;
+        int slot = slotOf[chunk];
+        if (slot >= 0) {
+            slotUsedAt[slot] = frame;
+        } else if (state[chunk] == ABSENT) {
+            state[chunk] = REQUESTED;
+            requests.offer(chunk);
+        }
+    }
+
+    /**
+     * Envoie un bloc lu au GPU, à la place du bloc utilisé il y a le plus longtemps si besoin.
+     * @return false si tous les emplacements servent à cette frame
+     */
+    private boolean build(Prepared prepared) {
+        int chunk = prepared.chunk;
+        if (slotOf[chunk] >= 0) return false;
+        int slot = freeSlot();
+        if (slot < 0) {
+            state[chunk] = ABSENT;
+            return false;
+        }
+
+        int c0 = (chunk % chunksX) * CHUNK_TILES, c1 = Math.min(map.getWidth(), c0 + CHUNK_TILES);
+        int r0 = (chunk / chunksX) * CHUNK_TILES, r1 = Math.min(map.getHeight(), r0 + CHUNK_TILES);
+        int height = map.getHeight();
+        float mapW = map.getWidth() * tileSize, mapH = height * tileSize;
+
+        SpriteCache cache = slots[slot];
+        cache.clear();
+        cache.beginCache();
+        /** morceau du parquet qui couvre ce bloc*/
+        float x0 = c0 * tileSize, x1 = c1 * tileSize;
+        float y0 = (height - r1) * tileSize, y1 = (height - r0) * tileSize;
+        backgroundPiece.setRegion(x0 / mapW, 1f - y1 / mapH, x1 / mapW, 1f - y0 / mapH);
+        cache.add(backgroundPiece, x0, y0, x1 - x0, y1 - y0);
+        /** meubles, déjà regroupés par image pour limiter les changements de texture*/
+        for (int k = 0; k < prepared.count; k++) {
+            int tile = prepared.tiles[k];
+            int col = tile % map.getWidth(), row = tile / map.getWidth();
+            cache.add(regions[map.getTileId(tile)], col * tileSize, (height - 1 - row) * tileSize, tileSize, tileSize);
+        }
+        cacheIds[slot] = cache.endCache();
+
+        chunkOfSlot[slot] = chunk;
+        slotOf[chunk] = slot;
+        slotUsedAt[slot] = frame;
+        state[chunk] = RESIDENT;
+        return true;
+    }
+
+    /** @return un emplacement libre, ou celui du bloc utilisé il y a le plus longtemps (hors frame en cours), -1 si aucun */
+    private int freeSlot() {
+        int oldest = -1;
+        for (int s = 0; s < slots.length; s++) {
+            if (chunkOfSlot[s] < 0) return s;
+            if (slotUsedAt[s] < frame && (oldest < 0 || slotUsedAt[s] < slotUsedAt[oldest])) oldest = s;
+        }
+        if (oldest >= 0) {
+            int evicted = chunkOfSlot[oldest];
+            slotOf[evicted] = -1;
+            state[evicted] = ABSENT;
+            chunkOfSlot[oldest] = -1;
+        }
+        return oldest;
+    }
+
+    /**
+     * Lit les tuiles d'un bloc et range ses meubles par image (tri par comptage).
+     * Appelée par le thread de fond, la carte n'est que lue.
+     */
+    private Prepared prepare(int chunk) {
+        int width = map.getWidth();
+        int c0 = (chunk % chunksX) * CHUNK_TILES, c1 = Math.min(width, c0 + CHUNK_TILES);
+        int r0 = (chunk / chunksX) * CHUNK_TILES, r1 = Math.min(map.getHeight(), r0 + CHUNK_TILES);
+
+        int[] start = new int[regions.length + 1];
+        for (int r = r0; r < r1; r++)
+            for (int c = c0; c < c1; c++) {
+                byte id = map.getTileId(r * width + c);
+                if (regions[id] != null) start[id + 1]++;
+            }
+        for (int id = 0; id < regions.length; id++) start[id + 1] += start[id];
+
+        int[] tiles = new int[start[regions.length]];
+        for (int r = r0; r < r1; r++)
+            for (int c = c0; c < c1; c++) {
+                int tile = r * width + c;
+                byte id = map.getTileId(tile);
+                if (regions[id] != null) tiles[start[id]++] = tile;
+            }
+        return new Prepared(chunk, tiles);
+    }
+
+    /** Boucle du thread de fond : lit les blocs demandés. */
+    private void loadLoop() {
+        try {
+            while (true) {
+                ready.offer(prepare(requests.take()));
+            }
+        } catch (InterruptedException e) {
+            // dispose()
+        }
+    }
+
+    /**
+     * Dessine les blocs visibles déjà chargés. À appeler hors d'un {@code batch.begin()/end()},
+     * après {@link #update(OrthographicCamera, Direction)}.
+     * @param camera caméra du monde
+     */
+    public void render(OrthographicCamera camera) {
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+
+        for (int cy = visibleY0; cy <= visibleY1; cy++) {
+            for (int cx = visibleX0; cx <= visibleX1; cx++) {
+                int slot = slotOf[cy * chunksX + cx];
+                if (slot < 0) continue;
+                SpriteCache cache = slots[slot];
+                cache.setProjectionMatrix(camera.combined);
+                cache.begin();
+                cache.draw(cacheIds[slot]);
+                cache.end();
+            }
+        }
+    }
+
+    /** @return colonne de bloc qui contient cette position X, bornée à la carte */
+    private int chunkCol(float worldX) {
+        return clamp((int) Math.floor(worldX / tileSize) / CHUNK_TILES, chunksX);
+    }
+
+    /** @return ligne de bloc (depuis le haut) qui contient cette position Y, bornée à la carte */
+    private int chunkRow(float worldY) {
+        int row = map.getHeight() - 1 - (int) Math.floor(worldY / tileSize);
+        return clamp(Math.max(0, row) / CHUNK_TILES, chunksY);
+    }
+
+    private static int clamp(int chunk, int count) {
+        return Math.max(0, Math.min(count - 1, chunk));
+    }
+
+    /** @return nombre de blocs sur le GPU */
+    public int getResidentChunks() {
+        int count = 0;
+        for (int chunk : chunkOfSlot) if (chunk >= 0) count++;
+        return count;
+    }
+
+    /**
+     * Arrête le thread de fond et libère les caches GPU.
+     */
+    public void dispose() {
+        loader.interrupt();
+        for (SpriteCache cache : slots) cache.dispose();
+    }
+
+    /**
+     * File d'indices de blocs entre le thread de rendu et le thread de fond, en anneau d'entiers :
+     * une demande n'alloue rien. Un bloc n'y est qu'une fois tant qu'il est demandé, la capacité
+     * initiale (tous les blocs) ne double que dans de rares cas.
+     */
+    private static final class ChunkQueue {
+        private int[] chunks;
+        private int head, size;
+
+        ChunkQueue(int capacity) {
+            chunks = new int[Math.max(1, capacity)];
+        }
+
+        synchronized void offer(int chunk) {
+            if (size == chunks.length) {
+                int[] grown = new int[size * 2];
+                for (int k = 0; k < size; k++) grown[k] = chunks[(head + k) % size];
+                chunks = grown;
+                head = 0;
+            }
+            chunks[(head + size++) % chunks.length] = chunk;
+            notify();
+        }
+
+        synchronized int take() throws InterruptedException {
+            while (size == 0) wait();
+            int chunk = chunks[head];
+            head = (head + 1) % chunks.length;
+            size--;
+            return chunk;
+        }
+    }
+
+    /** Meubles d'un bloc lus par le thread de fond, regroupés par image. */
+    private static final class Prepared {
+        final int chunk;
+        final int[] tiles;
+        final int count;
+
+        Prepared(int chunk, int[] tiles) {
+            this.chunk = chunk;
+            this.tiles = tiles;
+            this.count = tiles.length;
+        }
+    }
+}
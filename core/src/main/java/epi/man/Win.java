@@ -3,6 +3,7 @@ package epi.man;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
 import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 
@@ -28,6 +29,21 @@ public class Win {
     /** durée d'affichage de l'écran victoire.*/
     private static final float DISPLAY_TIME = 5.0f;
 
+    /** Message de victoire*/
+    private static final String MESSAGE = "VICTOIRE, VOUS AVEZ VOTRE DIPLÔME EPITECH !";
+
+    /** Score de {@link #render(SpriteBatch, float)} : message seul*/
+    private static final int NO_SCORE = Integer.MIN_VALUE;
+    /** Rien n'est encore mis en page*/
+    private static final int LAID_OUT_NONE = Integer.MAX_VALUE;
+
+    /** Glyphes du message et du score, placés une fois*/
+    private final BitmapFontCache cache;
+    /** Score mis en page dans {@link #cache}*/
+    private int shownScore = LAID_OUT_NONE;
+    /** Taille de la fenêtre*/
+    private int width, height;
+
     /**ceur du jeu*/
     private Core game;
 
@@ -44,6 +60,9 @@ public class Win {
         this.font.getData().setScale(4f);
         this.font.setColor(Color.GOLD);
         this.layout = new GlyphLayout();
+        this.cache = new BitmapFontCache(font, font.usesIntegerPositions());
+        this.width = Gdx.graphics.getWidth();
+        this.height = Gdx.graphics.getHeight();
         this.timer = 0f;
     }
 
@@ -73,22 +92,12 @@ public class Win {
 
 
     public void render(SpriteBatch batch, float delta) {
-        if (isWon) {
-            timer += delta;
-
-            String message = "VICTOIRE, VOUS AVEZ VOTRE DIPLÔME EPITECH !";
-            String subMessage = "Score final : ";
-
-            layout.setText(font, message);
-            float x = (Gdx.graphics.getWidth() - layout.width) / 2f;
-            float y = (Gdx.graphics.getHeight() + layout.height) / 2f;
-
-            font.draw(batch, message, x, y);
-        }
+        render(batch, delta, NO_SCORE);
     }
 
     /**
      * Affiche la victoire avec le score.
+     * Le texte n'est mis en page que si le score ou la taille de la fenêtre a changé.
      * @param batch sprite batch pour l'affichage
      * @param delta temps écoulé depuis le dernier rendu.
      * @param score score final du joueur.
@@ -98,23 +107,47 @@ public class Win {
         if (isWon) {
             timer += delta;
 
-            String message = "VICTOIRE, VOUS AVEZ VOTRE DIPLÔME EPITECH !";
+            if (score != shownScore) layoutText(score);
+            cache.draw(batch);
+        }
+    }
 
-            /** Message de victoire*/
-//            String message = "VICTOIRE !";
+    /**
+     * Place le message de victoire au centre de l'écran, et le score final en dessous.
+     * @param score score final, {@link #NO_SCORE} pour le message seul
+     */
+    private void layoutText(int score) {
+        shownScore = score;
+        cache.clear();
+
+        layout.setText(font, MESSAGE);
+        float x = (width - layout.width) / 2f;
+        float y = (height + layout.height) / 2f;
+        if (score == NO_SCORE) {
+            cache.addText(layout, x, y);
+            return;
+        }
 
-            layout.setText(font, message);
-            float x = (Gdx.graphics.getWidth() - layout.width) / 2f;
-            float y = (Gdx.graphics.getHeight() + layout.height) / 2f + 50;
-            font.draw(batch, message, x, y);
+        /** Message de victoire, décalé pour laisser la place au score*/
+        y += 50;
+        cache.addText(layout, x, y);
 
-            /** Score final*/
-            String scoreMessage = "Score final : " + score;
-            layout.setText(font, scoreMessage);
-            float scoreX = (Gdx.graphics.getWidth() - layout.width) / 2f;
-            float scoreY = y - 80;
-            font.draw(batch, scoreMessage, scoreX, scoreY);
-        }
+        /** Score final*/
+        layout.setText(font, "Score final : " + score);
+        float scoreX = (width - layout.width) / 2f;
+        float scoreY = y - 80;
+        cache.addText(layout, scoreX, scoreY);
+    }
+
+    /**
+     * La mise en page est refaite au prochain affichage.
+     * @param width nouvelle largeur de la fenêtre
+     * @param height nouvelle hauteur de la fenêtre
+     */
+    public void resize(int width, int height) {
+        this.width = width;
+        this.height = height;
+        shownScore = LAID_OUT_NONE;
     }
 
     /**
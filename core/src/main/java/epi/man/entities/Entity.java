@@ -1,67 +1,70 @@
 package epi.man.entities;
 
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 
+import epi.man.sim.Body;
+
 /**
- * Classe abstraite représentant toute entité du jeu (joueur ou ennemi).
- * Fournit :
- * - une position (x, y)
- * - une vitesse
- * - une texture optionnelle
+ * Classe abstraite représentant l'affichage d'une entité du jeu simulée par un objet (le joueur).
+ * La position, la vitesse et la boîte de collision sont dans le {@link Body} simulé ;
+ * cette classe ne garde que ce qui sert au dessin. Les ennemis, rangés par composant,
+ * sont affichés en un seul parcours par {@link epi.man.entities.enemies.EnemyAnimationSystem}.
  *
  * Chaque sous-classe doit implémenter :
- * - update() : comportement et logique par frame
- * - draw() : affichage graphique
- * - getX(), getY() : position actuelle
- * - getWidth(), getHeight() : dimensions de collision
+ * - update() : animation, à chaque frame
+ * - draw() : affichage graphique, interpolé entre les deux derniers pas
  */
 public abstract class Entity {
 
-    /** Position X de l'entité dans le monde. */
-    protected float x;
-
-    /** Position Y de l'entité dans le monde. */
-    protected float y;
-
-    /** Vitesse de déplacement de l'entité. */
-    protected float speed;
-
-    /** Direction de déplacement (optionnel, non utilisé ici directement). */
-    protected float dx, dy;
-
-    /** Texture affichée (certaines entités n'en utilisent pas ou l'écrasent). */
-    protected Texture texture;
+    /** Entité simulée affichée. */
+    protected final Body body;
 
-    /** Constructeur vide, utilisé par les sous-classes. */
-    public Entity() {}
+    /**
+     * @param body entité simulée à afficher
+     */
+    protected Entity(Body body) {
+        this.body = body;
+    }
 
     /**
-     * Logique interne mise à jour à chaque frame.
-     * @param delta temps écoulé depuis la dernière frame
+     * Avance l'animation.
+     * @param delta temps écoulé depuis la frame précédente
      */
     public abstract void update(float delta);
 
     /**
      * Affiche l'entité à l'écran avec son SpriteBatch.
+     * @param alpha avancement entre le pas précédent (0) et le pas courant (1)
      */
-    public abstract void draw(SpriteBatch batch);
+    public abstract void draw(SpriteBatch batch, float alpha);
 
-    /**
-     * Déplacement basique (non utilisé ici).
-     * Laisse la liberté aux sous-classes de l'implémenter ou non.
-     */
-    public void move() {}
+    /** @return position X d'affichage interpolée */
+    protected float renderX(float alpha) {
+        return body.renderX(alpha);
+    }
+
+    /** @return position Y d'affichage interpolée */
+    protected float renderY(float alpha) {
+        return body.renderY(alpha);
+    }
 
     /** @return position X actuelle */
-    public abstract float getX();
+    public float getX() {
+        return body.getX();
+    }
 
     /** @return position Y actuelle */
-    public abstract float getY();
+    public float getY() {
+        return body.getY();
+    }
 
     /** @return largeur réelle utilisée pour la collision */
-    public abstract float getWidth();
+    public float getWidth() {
+        return body.getWidth();
+    }
 
     /** @return hauteur réelle utilisée pour la collision */
-    public abstract float getHeight();
+    public float getHeight() {
+        return body.getHeight();
+    }
 }
@@ -1,197 +1,75 @@
 package epi.man.entities;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.Input;
-import epi.man.Board;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import epi.man.GameAssets;
+import epi.man.sim.Player;
 import java.util.ArrayList;
 
 /**
- * Représente le joueur (l'étudiante) dans le jeu.
- * Gère :
- * - le déplacement case par case
- * - les collisions avec la map
- * - l'animation selon la direction
- * - le reset lorsqu'un ennemi touche le joueur
- * - l'état d'invincibilité temporaire après respawn
+ * Affichage du joueur (l'étudiante).
+ * Le déplacement, les collisions et l'invincibilité sont gérés par {@link Player} ;
+ * ici on ne gère que l'animation selon la direction.
  */
 public class Student extends Entity {
 
-    // Animation
-    ArrayList<Texture> framesRight, framesLeft, framesUp, framesDown;
-    Texture currentTexture;
+    // Animation (régions de l'atlas partagé)
+    ArrayList<TextureRegion> framesRight, framesLeft, framesUp, framesDown;
+    TextureRegion currentTexture;
     int currentFrameIndex = 0;
     float animationTimer = 0f;
-    String direction = "DOWN";
 
-    private Board board;
-
-    // déplacement case par case
-    private boolean isMoving = false;
-    private float targetX, targetY;
-
-    // spawn / invincibilité
-    private float startX, startY;
-    private float invincibilityTimer = 0f;
-    private final float INVINCIBILITY_DURATION = 0.5f;
+    private final Player player;
+    private final GameAssets assets;
 
     /**
      * Constructeur du joueur.
-     * Initialise la position, la vitesse, la map associée et charge toutes les animations.
+     * Charge toutes les animations.
+     * @param player joueur simulé
+     * @param assets ressources partagées
      */
-    public Student(float x, float y, float speed, Board board) {
-        this.x = x;
-        this.y = y;
-        this.speed = speed;
-        this.board = board;
-
-        this.startX = x;
-        this.startY = y;
+    public Student(Player player, GameAssets assets) {
+        super(player);
+        this.player = player;
+        this.assets = assets;
 
         // SPRITES
+        assets.retain(GameAssets.ATLAS, TextureAtlas.class);
         framesRight = new ArrayList<>();
-        framesRight.add(new Texture("student/LEFT1.png"));
-        framesRight.add(new Texture("student/LEFT2.png"));
+        framesRight.add(assets.region("student/LEFT1"));
+        framesRight.add(assets.region("student/LEFT2"));
 
         framesLeft = new ArrayList<>();
-        framesLeft.add(new Texture("student/RIGHT1.png"));
-        framesLeft.add(new Texture("student/RIGHT2.png"));
+        framesLeft.add(assets.region("student/RIGHT1"));
+        framesLeft.add(assets.region("student/RIGHT2"));
 
         framesUp = new ArrayList<>();
-        framesUp.add(new Texture("student/UP1.png"));
-        framesUp.add(new Texture("student/UP2.png"));
+        framesUp.add(assets.region("student/UP1"));
+        framesUp.add(assets.region("student/UP2"));
 
         framesDown = new ArrayList<>();
-        framesDown.add(new Texture("student/DOWN1.png"));
-        framesDown.add(new Texture("student/DOWN2.png"));
+        framesDown.add(assets.region("student/DOWN1"));
+        framesDown.add(assets.region("student/DOWN2"));
 
         currentTexture = framesDown.get(0);
-
-        // Première destination = case actuelle
-        targetX = x;
-        targetY = y;
-    }
-
-    /**
-     * Replace le joueur à sa position de départ après une collision avec un ennemi.
-     * Active une courte invincibilité.
-     */
-    public void resetToStart() {
-        x = startX;
-        y = startY;
-        targetX = x;
-        targetY = y;
-        isMoving = false;
-        animationTimer = 0;
-        currentFrameIndex = 0;
-        invincibilityTimer = INVINCIBILITY_DURATION;
-    }
-
-    /**
-     * Met à jour :
-     * - la gestion d'invincibilité
-     * - le déplacement case par case
-     * - l'animation
-     */
-    public void update(float delta) {
-        if (invincibilityTimer > 0f)
-            invincibilityTimer -= delta;
-
-        if (!isMoving)
-            handleInput();
-
-        moveTowardTarget(delta);
-        updateAnimation(delta);
-    }
-
-    /**
-     * Analyse les touches directionnelles,
-     * vérifie la possibilité du mouvement et prépare la prochaine case.
-     */
-    private void handleInput() {
-
-        int tile = Board.TILE_SIZE;
-
-        // Recentrage parfait sur la grille
-        x = Math.round(x / tile) * tile;
-        y = Math.round(y / tile) * tile;
-
-        float tryX = x;
-        float tryY = y;
-
-        if (Gdx.input.isKeyPressed(Input.Keys.RIGHT)) {
-            direction = "RIGHT";
-            tryX = x + tile;
-        }
-        else if (Gdx.input.isKeyPressed(Input.Keys.LEFT)) {
-            direction = "LEFT";
-            tryX = x - tile;
-        }
-        else if (Gdx.input.isKeyPressed(Input.Keys.UP)) {
-            direction = "UP";
-            tryY = y + tile;
-        }
-        else if (Gdx.input.isKeyPressed(Input.Keys.DOWN)) {
-            direction = "DOWN";
-            tryY = y - tile;
-        }
-        else {
-            return; // aucune touche
-        }
-
-        // Collision mur
-        if (board.isWalkableWorld(tryX + 1, tryY + 1)) {
-            targetX = tryX;
-            targetY = tryY;
-            isMoving = true;
-        }
-    }
-
-    /**
-     * Déplace progressivement vers targetX/targetY.
-     * Gère l'arrivée sur une case et vérifie les collisions avec trophées.
-     */
-    private void moveTowardTarget(float delta) {
-        if (!isMoving) return;
-
-        float dist = speed * delta;
-
-        // Arrivé sur la case
-        if (Math.abs(targetX - x) <= dist &&
-            Math.abs(targetY - y) <= dist) {
-
-            x = targetX;
-            y = targetY;
-            isMoving = false;
-
-            // Collision avec trophée
-            board.checkBonusCollisionAt(x, y, getWidth(), getHeight());
-
-            return;
-        }
-
-        // Mouvement
-        if (x < targetX) x += dist;
-        if (x > targetX) x -= dist;
-        if (y < targetY) y += dist;
-        if (y > targetY) y -= dist;
     }
 
     /**
      * Gère l'évolution de l'animation selon la direction et le mouvement du joueur.
      */
-    private void updateAnimation(float delta) {
-        ArrayList<Texture> frames;
+    @Override
+    public void update(float delta) {
+        ArrayList<TextureRegion> frames;
 
-        switch (direction) {
-            case "RIGHT": frames = framesRight; break;
-            case "LEFT": frames = framesLeft; break;
-            case "UP": frames = framesUp; break;
+        switch (player.getDirection()) {
+            case RIGHT: frames = framesRight; break;
+            case LEFT: frames = framesLeft; break;
+            case UP: frames = framesUp; break;
             default: frames = framesDown; break;
         }
 
-        if (isMoving) {
+        if (player.isMoving()) {
             animationTimer += delta;
             if (animationTimer > 0.15f) {
                 currentFrameIndex = (currentFrameIndex + 1) % frames.size();
@@ -207,49 +85,32 @@ public class Student extends Entity {
     }
 
     /**
-     * Affiche le joueur avec son sprite actuel.
+     * Affiche le joueur avec son sprite actuel, interpolé entre les deux derniers pas.
      */
     @Override
-    public void draw(SpriteBatch batch) {
-        batch.draw(currentTexture, x, y, 40, 50);
+    public void draw(SpriteBatch batch, float alpha) {
+        batch.draw(currentTexture, renderX(alpha), renderY(alpha), Player.WIDTH, Player.HEIGHT);
     }
 
-    /** @return position X du joueur */
-    @Override
-    public float getX() {
-        return x;
-    }
-
-    /** @return position Y du joueur */
-    @Override
-    public float getY() {
-        return y;
-    }
-
-    /** @return largeur du sprite */
-    @Override public float getWidth() { return 40; }
-
-    /** @return hauteur du sprite */
-    @Override public float getHeight() { return 50; }
-
     /**
      * @return true si le joueur peut mourir (invincibilité terminée)
      */
     public boolean isVulnerable() {
-        return invincibilityTimer <= 0f;
+        return player.isVulnerable();
     }
 
-    /** @return texture actuelle utilisée pour le rendu */
-    public Texture getTexture() { return currentTexture; }
+    /** @return joueur simulé */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /** @return image actuelle utilisée pour le rendu */
+    public TextureRegion getTexture() { return currentTexture; }
 
     /**
-     * Libère les textures des animations.
+     * Rend la référence prise sur l'atlas.
      */
     public void dispose() {
-        for (Texture t : framesRight) t.dispose();
-        for (Texture t : framesLeft) t.dispose();
-        for (Texture t : framesUp) t.dispose();
-        for (Texture t : framesDown) t.dispose();
+        assets.release(GameAssets.ATLAS);
     }
 }
-
@@ -1,122 +1,100 @@
 package epi.man.entities.enemies;
 
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import epi.man.Board;
-import epi.man.entities.Entity;
-
-import java.util.Random;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import epi.man.GameAssets;
+import epi.man.sim.Direction;
+import epi.man.sim.EnemyPolicy;
+import epi.man.sim.EnemyStore;
+import epi.man.sim.World;
 
 /**
- * Classe abstraite commune à tous les ennemis du jeu (Florian, Lyann, etc.).
- * Fournit :
- * - la gestion de direction
- * - la détection de collisions avec la map
- * - le blocage de la porte après sortie de l'enclos
- * - un système de direction aléatoire
+ * Classe abstraite commune à l'apparence de tous les ennemis du jeu (Florian, Lyann, etc.).
+ * La sortie de l'enclos, les collisions et l'IA sont simulées dans l'{@link EnemyStore} ;
+ * l'état des animations est dans l'{@link EnemyAnimationSystem}. Une seule instance par
+ * personnage, partagée par tous les ennemis qui ont son IA.
  *
- * Chaque ennemi hérite d'Enemies et implémente :
- * - update() : logique et IA
- * - draw() : affichage
+ * Chaque ennemi hérite d'Enemies et fournit :
+ * - son IA ({@link EnemyPolicy})
+ * - ses images pour chaque direction
  */
-public abstract class Enemies extends Entity {
-
-    /** Générateur aléatoire pour les changements de direction. */
-    protected Random random;
+public abstract class Enemies {
 
-    /** Direction actuelle de l'ennemi. */
-    protected Direction directionActually;
+    /** IA de déplacement */
+    private final EnemyPolicy policy;
+    /** Ressources partagées, une référence sur l'atlas tant que le personnage existe */
+    private final GameAssets assets;
 
-    /** Référence vers la map (Board). */
-    protected Board board;
+    /** Animations indexées par ordinal de {@link Direction} */
+    private final TextureRegion[][] frames;
 
-    /** Indique si l'ennemi a quitté son enclos une première fois. */
-    protected boolean hasLeftPen = false;
+    /**
+     * @param assets ressources partagées, l'atlas est gardé jusqu'à {@link #dispose()}
+     * @param policy IA de déplacement
+     */
+    protected Enemies(GameAssets assets, EnemyPolicy policy,
+                      TextureRegion[] framesRight, TextureRegion[] framesLeft,
+                      TextureRegion[] framesUp, TextureRegion[] framesDown) {
+        assets.retain(GameAssets.ATLAS, TextureAtlas.class);
+        this.assets = assets;
+        this.policy = policy;
+        this.frames = new TextureRegion[Direction.ALL.length][];
+        frames[Direction.RIGHT.ordinal()] = framesRight;
+        frames[Direction.LEFT.ordinal()] = framesLeft;
+        frames[Direction.UP.ordinal()] = framesUp;
+        frames[Direction.DOWN.ordinal()] = framesDown;
+    }
 
     /**
-     * Directions possibles pour les déplacements.
+     * @param assets ressources partagées
+     * @param names noms des régions de l'atlas
+     * @return images d'une animation
      */
-    public enum Direction {
-        UP, DOWN, LEFT, RIGHT
+    protected static TextureRegion[] frames(GameAssets assets, String... names) {
+        TextureRegion[] frames = new TextureRegion[names.length];
+        for (int i = 0; i < names.length; i++) frames[i] = assets.region(names[i]);
+        return frames;
     }
 
     /**
-     * Constructeur commun à tous les ennemis.
+     * Ajoute un ennemi de ce personnage à la partie.
+     * Sa boîte de collision a la taille de sa première image vers la droite.
      *
+     * @param world partie dans laquelle l'ennemi apparaît
      * @param x position X de départ
      * @param y position Y de départ
      * @param speed vitesse de déplacement
-     * @param board référence à la map pour gérer les collisions
+     * @return indice de l'ennemi dans l'{@link EnemyStore}
      */
-    public Enemies(float x, float y, float speed, Board board) {
-        super();
-        this.x = x;
-        this.y = y;
-        this.speed = speed;
-        this.board = board;
-
-        this.random = new Random();
-        this.directionActually = Direction.UP;
+    public int spawn(World world, float x, float y, float speed) {
+        TextureRegion first = idle();
+        return world.spawnEnemy(policy, x, y, speed, first.getRegionWidth(), first.getRegionHeight());
     }
 
     /**
-     * Vérifie si l’ennemi peut se déplacer vers une zone donnée.
-     * Gère :
-     * - les collisions avec les murs
-     * - l'interdiction d'utiliser la porte '-' après sortie de l'enclos
-     *
-     * @param nextX position X envisagée
-     * @param nextY position Y envisagée
-     * @param w largeur du sprite ennemi
-     * @param h hauteur du sprite ennemi
-     * @return true si la zone est libre et autorisée
+     * @param direction direction de l'ennemi
+     * @param index numéro d'image, modulo le nombre d'images de l'animation
+     * @return image à afficher
      */
-    protected boolean canMoveTo(float nextX, float nextY, float w, float h) {
-
-        float cx = nextX + w / 2f;
-        float cy = nextY + h / 2f;
-
-        int tileX = (int)(cx / Board.TILE_SIZE);
-        int tileY = board.getMap().length - 1 - (int)(cy / Board.TILE_SIZE);
-
-        char tile = board.getMap()[tileY][tileX];
-
-        // Blocage définitif de la porte '-' après sortie
-        if (hasLeftPen && tile == '-') {
-            return false;
-        }
-
-        float margin = 3f;
-
-        // Vérification des 4 coins du sprite
-        return board.isWalkableWorld(nextX + margin,        nextY + margin) &&
-            board.isWalkableWorld(nextX + w - margin,    nextY + margin) &&
-            board.isWalkableWorld(nextX + margin,        nextY + h - margin) &&
-            board.isWalkableWorld(nextX + w - margin,    nextY + h - margin);
+    public TextureRegion frame(Direction direction, int index) {
+        TextureRegion[] animation = frames[direction.ordinal()];
+        return animation[index % animation.length];
     }
 
-    /**
-     * Change aléatoirement la direction actuelle de l'ennemi.
-     */
-    protected void changeRandomDirection() {
-        Direction[] dirs = Direction.values();
-        directionActually = dirs[random.nextInt(dirs.length)];
+    /** @return image affichée tant que l'ennemi est dans l'enclos */
+    public TextureRegion idle() {
+        return frames[Direction.RIGHT.ordinal()][0];
     }
 
-    /**
-     * Met à jour l'ennemi :
-     * déplacement, IA, orientation, gestion d’enclos...
-     * Implémenté dans chaque ennemi concret.
-     */
-    public abstract void update(float delta);
+    /** @return IA de déplacement */
+    public EnemyPolicy getPolicy() {
+        return policy;
+    }
 
     /**
-     * Affiche l'ennemi.
-     * Implémenté dans chaque ennemi concret.
+     * Rend la référence prise sur l'atlas.
      */
-    public abstract void draw(SpriteBatch batch);
+    public void dispose() {
+        assets.release(GameAssets.ATLAS);
+    }
 }
-
-
-
-
-
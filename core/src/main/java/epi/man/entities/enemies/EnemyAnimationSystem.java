@@ -0,0 +1,96 @@
+package epi.man.entities.enemies;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+import epi.man.sim.EnemyPolicy;
+import epi.man.sim.EnemyStore;
+
+import java.util.Arrays;
+
+/**
+ * Animation et affichage de tous les ennemis d'une partie, en un parcours de l'{@link EnemyStore}.
+ * L'état des animations est rangé comme les ennemis : un minuteur et un numéro d'image par
+ * indice d'ennemi. Les images viennent du personnage ({@link Enemies}) de chaque IA.
+ */
+public class EnemyAnimationSystem {
+
+    /** Durée d'une image d'animation, en secondes */
+    private static final float FRAME_DURATION = 0.15f;
+
+    /** Ennemis simulés */
+    private final EnemyStore enemies;
+
+    /** Personnages, indexés par ordinal de {@link EnemyPolicy} */
+    private final Enemies[] skins = new Enemies[EnemyPolicy.ALL.length];
+
+    /** Minuteur et numéro d'image de chaque ennemi */
+    private float[] timers = new float[16];
+    private int[] frames = new int[16];
+
+    /**
+     * @param enemies ennemis de la partie
+     */
+    public EnemyAnimationSystem(EnemyStore enemies) {
+        this.enemies = enemies;
+    }
+
+    /**
+     * @param skin personnage utilisé pour afficher les ennemis de son IA
+     */
+    public void setSkin(Enemies skin) {
+        skins[skin.getPolicy().ordinal()] = skin;
+    }
+
+    /**
+     * Met à jour les animations selon la direction actuelle.
+     * Un ennemi reste immobile tant qu'il n'est pas sorti de l'enclos, et figé quand il est
+     * loin du joueur ({@link EnemyStore#isFar(int)}).
+     * @param delta temps écoulé depuis la frame précédente
+     */
+    public void update(float delta) {
+        int count = enemies.size();
+        if (timers.length < count) {
+            int capacity = Math.max(count, timers.length * 2);
+            timers = Arrays.copyOf(timers, capacity);
+            frames = Arrays.copyOf(frames, capacity);
+        }
+        for (int i = 0; i < count; i++) {
+            if (!enemies.hasLeftPen(i) || enemies.isFar(i)) continue;
+            timers[i] += delta;
+            if (timers[i] > FRAME_DURATION) {
+                frames[i]++;
+                timers[i] = 0f;
+            }
+        }
+    }
+
+    /**
+     * Affiche les ennemis visibles, interpolés entre les deux derniers pas de simulation.
+     * Les ennemis hors de la vue ne sont pas envoyés au SpriteBatch.
+     * @param alpha avancement entre le pas précédent (0) et le pas courant (1)
+     * @param view partie du monde visible, en pixels
+     */
+    public void draw(SpriteBatch batch, float alpha, Rectangle view) {
+        float left = view.x, right = view.x + view.width;
+        float bottom = view.y, top = view.y + view.height;
+        int count = Math.min(enemies.size(), timers.length);
+        for (int i = 0; i < count; i++) {
+            Enemies skin = skins[enemies.getPolicy(i).ordinal()];
+            if (skin == null) continue;
+            TextureRegion region = enemies.hasLeftPen(i)
+                ? skin.frame(enemies.getDirection(i), frames[i])
+                : skin.idle();
+            float x = enemies.renderX(i, alpha), y = enemies.renderY(i, alpha);
+            if (x > right || y > top || x + region.getRegionWidth() < left || y + region.getRegionHeight() < bottom) continue;
+            batch.draw(region, x, y);
+        }
+    }
+
+    /**
+     * Libère les personnages (leurs références sur les ressources).
+     */
+    public void dispose() {
+        for (Enemies skin : skins) if (skin != null) skin.dispose();
+    }
+}
@@ -0,0 +1,91 @@
+package epi.man.screens;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+
+import epi.man.GameAssets;
+
+/**
+ * Écran affiché pendant le chargement des ressources au lancement.
+ * Affiche une barre de progression et le pourcentage chargé.
+ * N'utilise que la police intégrée à libGDX, aucune ressource du jeu n'étant encore prête.
+ */
+public class LoadingScreen implements Screen {
+
+    /** Ressources en cours de chargement*/
+    private final GameAssets assets;
+    /** Caméra en coordonnées écran*/
+    private final OrthographicCamera camera = new OrthographicCamera();
+    /** Dessine la barre de progression*/
+    private final ShapeRenderer shapes = new ShapeRenderer();
+    /** Dessine le texte*/
+    private final SpriteBatch batch = new SpriteBatch();
+    /** Police du texte*/
+    private final BitmapFont font = new BitmapFont();
+
+    /**
+     * @param assets ressources dont on affiche la progression
+     */
+    public LoadingScreen(GameAssets assets) {
+        this.assets = assets;
+        font.getData().setScale(2f);
+        font.setColor(Color.WHITE);
+        resize(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+    }
+
+    @Override
+    public void show() {
+    }
+
+    /**
+     * Affiche la progression du chargement.
+     * @param delta temps écoulé depuis la dernière frame
+     */
+    @Override
+    public void render(float delta) {
+        float progress = assets.getProgress();
+        float w = camera.viewportWidth, h = camera.viewportHeight;
+        float barW = w * 0.6f, barH = 30f;
+        float barX = (w - barW) / 2f, barY = h / 2f - barH / 2f;
+
+        shapes.setProjectionMatrix(camera.combined);
+        shapes.begin(ShapeRenderer.ShapeType.Line);
+        shapes.setColor(Color.WHITE);
+        shapes.rect(barX, barY, barW, barH);
+        shapes.end();
+        shapes.begin(ShapeRenderer.ShapeType.Filled);
+        shapes.rect(barX, barY, barW * progress, barH);
+        shapes.end();
+
+        batch.setProjectionMatrix(camera.combined);
+        batch.begin();
+        font.draw(batch, "Chargement... " + (int) (progress * 100) + "%", barX, barY + barH + 50);
+        batch.end();
+    }
+
+    /**
+     * Recale la caméra sur la nouvelle taille de fenêtre.
+     * @param width nouvelle largeur
+     * @param height nouvelle hauteur
+     */
+    @Override
+    public void resize(int width, int height) {
+        camera.setToOrtho(false, width, height);
+    }
+
+    @Override public void pause() {}
+    @Override public void resume() {}
+    @Override public void hide() {}
+
+    @Override
+    public void dispose() {
+        shapes.dispose();
+        batch.dispose();
+        font.dispose();
+    }
+}
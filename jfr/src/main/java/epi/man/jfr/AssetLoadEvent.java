@@ -0,0 +1,30 @@
+package epi.man.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Une ressource (image, atlas, musique) est chargée.
+ * Le chargement est mesuré par {@link epi.man.sim.Tracer#assetLoaded(String, String, long)},
+ * l'événement est enregistré à sa fin.
+ */
+@Name("epi.man.AssetLoad")
+@Label("Asset Load")
+@Category({"EPI-MAN", "Loading"})
+@StackTrace(false)
+final class AssetLoadEvent extends Event {
+
+    @Label("Path")
+    String path;
+
+    @Label("Type")
+    String type;
+
+    @Label("Load Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long loadTime;
+}
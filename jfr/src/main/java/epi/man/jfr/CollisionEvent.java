@@ -0,0 +1,30 @@
+package epi.man.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Phase de collision d'un pas de simulation.
+ */
+@Name("epi.man.Collisions")
+@Label("Collisions")
+@Category({"EPI-MAN", "Simulation"})
+@Description("Contacts joueur / ennemis et joueur / bonus d'un pas de simulation")
+@StackTrace(false)
+final class CollisionEvent extends Event {
+
+    @Label("Enemies")
+    @Description("Ennemis rangés dans la grille")
+    int enemies;
+
+    @Label("Candidates")
+    @Description("Ennemis testés contre le joueur")
+    int candidates;
+
+    @Label("Contacts")
+    int contacts;
+}
@@ -0,0 +1,32 @@
+package epi.man.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Choix de direction d'un ennemi sur un carrefour.
+ */
+@Name("epi.man.EnemyDecision")
+@Label("Enemy Decision")
+@Category({"EPI-MAN", "Simulation"})
+@Description("Direction choisie par un ennemi sur un carrefour")
+@StackTrace(false)
+final class EnemyDecisionEvent extends Event {
+
+    @Label("Enemy")
+    int enemy;
+
+    @Label("Tile")
+    int tile;
+
+    @Label("Direction")
+    String direction;
+
+    @Label("Goal Tile")
+    @Description("Tuile visée, -1 si aucune")
+    int goal;
+}
@@ -0,0 +1,22 @@
+package epi.man.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Une phase d'une frame ({@link epi.man.sim.Metric}), de son début à sa fin.
+ */
+@Name("epi.man.FramePhase")
+@Label("Frame Phase")
+@Category({"EPI-MAN", "Frame"})
+@Description("Phase d'une frame de jeu (simulation, rendu, HUD...)")
+@StackTrace(false)
+final class FramePhaseEvent extends Event {
+
+    @Label("Phase")
+    String phase;
+}
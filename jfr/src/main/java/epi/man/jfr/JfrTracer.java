@@ -0,0 +1,140 @@
+package epi.man.jfr;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+
+import epi.man.sim.Direction;
+import epi.man.sim.Metric;
+import epi.man.sim.Tracer;
+import jdk.jfr.Configuration;
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+
+/**
+ * Envoie les événements du jeu à Java Flight Recorder et enregistre la session
+ * avec la configuration "profile" du JDK (GC, JIT, threads...), à ouvrir dans JDK Mission Control.
+ * Chargé par réflexion par le lanceur avec {@code --jfr [fichier]}.
+ *
+ * Si la JVM enregistre déjà (-XX:StartFlightRecording), les événements du jeu y figurent aussi.
+ * Les événements des frames (phases, décisions, collisions) ne sont créés que si leur type est
+ * activé : sinon la frame n'alloue rien.
+ */
+public final class JfrTracer implements Tracer {
+
+    /** Fichier de la session par défaut, dans le dossier utilisateur*/
+    public static final String DEFAULT_OUTPUT = ".epi-man/session.jfr";
+
+    private static final EventType PHASE = EventType.getEventType(FramePhaseEvent.class);
+    private static final EventType DECISION = EventType.getEventType(EnemyDecisionEvent.class);
+    private static final EventType COLLISIONS = EventType.getEventType(CollisionEvent.class);
+
+    private final Recording recording;
+    private final Path output;
+
+    /** Phase en cours pour chaque mesure, null si aucune*/
+    private final FramePhaseEvent[] phases = new FramePhaseEvent[Metric.ALL.length];
+    private CollisionEvent collisions;
+    private MapLoadEvent mapLoad;
+
+    /**
+     * Enregistre dans {@link #DEFAULT_OUTPUT}.
+     */
+    public JfrTracer() throws IOException, ParseException {
+        this(Paths.get(System.getProperty("user.home")).resolve(DEFAULT_OUTPUT).toString());
+    }
+
+    /**
+     * @param output fichier .jfr écrit à la fin de la session
+     */
+    public JfrTracer(String output) throws IOException, ParseException {
+        this.output = Paths.get(output).toAbsolutePath();
+        if (this.output.getParent() != null) Files.createDirectories(this.output.getParent());
+        recording = new Recording(Configuration.getConfiguration("profile"));
+        recording.setName("EPI-MAN");
+        recording.setToDisk(true);
+        recording.setDestination(this.output);
+        recording.start();
+        System.out.println("Flight Recorder : session enregistrée dans " + this.output);
+    }
+
+    @Override
+    public void beginPhase(Metric metric) {
+        if (!PHASE.isEnabled()) return;
+        FramePhaseEvent event = new FramePhaseEvent();
+        event.phase = metric.name();
+        event.begin();
+        phases[metric.ordinal()] = event;
+    }
+
+    @Override
+    public void endPhase(Metric metric) {
+        FramePhaseEvent event = phases[metric.ordinal()];
+        if (event == null) return;
+        phases[metric.ordinal()] = null;
+        event.commit();
+    }
+
+    @Override
+    public void decision(int enemy, int tile, Direction direction, int goal) {
+        if (!DECISION.isEnabled()) return;
+        EnemyDecisionEvent event = new EnemyDecisionEvent();
+        event.enemy = enemy;
+        event.tile = tile;
+        event.direction = direction.name();
+        event.goal = goal;
+        event.commit();
+    }
+
+    @Override
+    public void beginCollisions() {
+        if (!COLLISIONS.isEnabled()) return;
+        collisions = new CollisionEvent();
+        collisions.begin();
+    }
+
+    @Override
+    public void endCollisions(int enemies, int candidates, int contacts) {
+        if (collisions == null) return;
+        collisions.enemies = enemies;
+        collisions.candidates = candidates;
+        collisions.contacts = contacts;
+        collisions.commit();
+        collisions = null;
+    }
+
+    @Override
+    public void beginMapLoad() {
+        mapLoad = new MapLoadEvent();
+        mapLoad.begin();
+    }
+
+    @Override
+    public void endMapLoad(String path, int width, int height) {
+        if (mapLoad == null) return;
+        mapLoad.path = path;
+        mapLoad.width = width;
+        mapLoad.height = height;
+        mapLoad.commit();
+        mapLoad = null;
+    }
+
+    @Override
+    public void assetLoaded(String path, String type, long nanos) {
+        AssetLoadEvent event = new AssetLoadEvent();
+        event.path = path;
+        event.type = type;
+        event.loadTime = nanos;
+        event.commit();
+    }
+
+    /** Arrête l'enregistrement et écrit le fichier. */
+    @Override
+    public void close() {
+        recording.stop();
+        recording.close();
+        System.out.println("Flight Recorder : " + output);
+    }
+}
@@ -0,0 +1,26 @@
+package epi.man.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Chargement d'une carte : lecture, compilation et couche statique.
+ */
+@Name("epi.man.MapLoad")
+@Label("Map Load")
+@Category({"EPI-MAN", "Loading"})
+@StackTrace(false)
+final class MapLoadEvent extends Event {
+
+    @Label("Path")
+    String path;
+
+    @Label("Width")
+    int width;
+
+    @Label("Height")
+    int height;
+}
@@ -3,16 +3,129 @@ package epi.man.lwjgl3;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
 import epi.man.Core;
+import epi.man.sim.Tracer;
+
+import java.lang.reflect.InvocationTargetException;
 
 /** Launches the desktop (LWJGL3) application. */
 public class Lwjgl3Launcher {
+    /** Options de lancement, affichées quand l'une d'elles est mal écrite */
+    private static final String USAGE =
+        "options : [--horde N] [--horde-seed N] [--hitch-ms N] [--lod PROCHE,LOIN,N] [--ai-threads N] [--jfr [fichier]]";
+
     public static void main(String[] args) {
         if (StartupHelper.startNewJvmIfRequired()) return; // This handles macOS support and helps on Windows.
-        createApplication();
+        Core core = new Core();
+        try {
+            parseArguments(core, args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("argument invalide : " + e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        createApplication(core);
+    }
+
+    /**
+     * Applique les options de la ligne de commande au jeu.
+     * @param core jeu pas encore lancé
+     * @param args options
+     * @throws IllegalArgumentException si une option est inconnue, sans sa valeur ou si sa valeur n'est pas valide
+     */
+    private static void parseArguments(Core core, String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            switch (option) {
+                // --horde N : N ennemis de plus, pour tester la tenue de charge
+                case "--horde":
+                    core.setHorde(parseInt(option, value(args, ++i, option)));
+                    break;
+                // --horde-seed N : graine du tirage des tuiles de la horde, la même horde d'une partie à l'autre
+                case "--horde-seed":
+                    core.setHordeSeed(parseLong(option, value(args, ++i, option)));
+                    break;
+                // --hitch-ms N : rapport des dernières frames quand une frame dure plus de N ms
+                case "--hitch-ms":
+                    core.setHitchThreshold(parseFloat(option, value(args, ++i, option)));
+                    break;
+                // --lod PROCHE,LOIN,N : ennemis à jour à chaque pas jusqu'à PROCHE tuiles, un pas sur N jusqu'à LOIN, endormis au-delà
+                case "--lod": {
+                    String value = value(args, ++i, option);
+                    String[] bands = value.split(",");
+                    if (bands.length != 3) throw new IllegalArgumentException(option + " " + value + " (trois entiers attendus)");
+                    core.setActivityBands(parseInt(option, bands[0]), parseInt(option, bands[1]), parseInt(option, bands[2]));
+                    break;
+                }
+                // --ai-threads N : threads qui choisissent les directions des ennemis, 1 pour tout faire sur le thread de rendu
+                case "--ai-threads":
+                    core.setAiThreads(parseInt(option, value(args, ++i, option)));
+                    break;
+                // --jfr [fichier] : événements Java Flight Recorder, fichier .jfr écrit à la fermeture
+                case "--jfr": {
+                    boolean hasFile = i + 1 < args.length && !args[i + 1].startsWith("--");
+                    core.setTracer(loadJfrTracer(hasFile ? args[++i] : null));
+                    break;
+                }
+                default:
+                    throw new IllegalArgumentException("option inconnue : " + option);
+            }
+        }
+    }
+
+    /**
+     * @return valeur d'une option, à l'indice qui la suit
+     * @throws IllegalArgumentException si la ligne de commande s'arrête avant
+     */
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) throw new IllegalArgumentException(option + " (valeur attendue)");
+        return args[index];
+    }
+
+    private static int parseInt(String option, String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(option + " " + value + " (entier attendu)");
+        }
+    }
+
+    private static long parseLong(String option, String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(option + " " + value + " (entier attendu)");
+        }
+    }
+
+    private static float parseFloat(String option, String value) {
+        try {
+            return Float.parseFloat(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(option + " " + value + " (nombre attendu)");
+        }
+    }
+
+    private static Lwjgl3Application createApplication(Core core) {
+        return new Lwjgl3Application(core, getDefaultConfiguration());
     }
 
-    private static Lwjgl3Application createApplication() {
-        return new Lwjgl3Application(new Core(), getDefaultConfiguration());
+    /**
+     * Charge le module jfr par réflexion : il demande Java 11, le jeu reste lancé sur Java 8 sans lui.
+     * @param output fichier .jfr, null pour celui par défaut
+     * @return le tracer, {@link Tracer#NONE} si Flight Recorder n'est pas disponible
+     */
+    private static Tracer loadJfrTracer(String output) {
+        try {
+            Class<?> type = Class.forName("epi.man.jfr.JfrTracer");
+            Object tracer = output == null
+                ? type.getConstructor().newInstance()
+                : type.getConstructor(String.class).newInstance(output);
+            return (Tracer) tracer;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            Throwable cause = e instanceof InvocationTargetException ? e.getCause() : e;
+            System.out.println("--jfr ignoré, Flight Recorder indisponible : " + cause);
+            return Tracer.NONE;
+        }
     }
 
     private static Lwjgl3ApplicationConfiguration getDefaultConfiguration() {
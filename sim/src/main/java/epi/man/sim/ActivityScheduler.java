@@ -0,0 +1,182 @@
+package epi.man.sim;
+
+import java.util.Arrays;
+
+/**
+ * Niveau de détail de la mise à jour des ennemis, selon leur distance au joueur (en tuiles,
+ * le plus grand écart en colonnes ou en lignes) :
+ * - {@link Band#NEAR} : déplacé à chaque pas et animé
+ * - {@link Band#FAR} : déplacé un pas sur {@code farInterval}, du temps de tous les pas sautés
+ *   d'un coup, le long des couloirs du {@link JunctionGraph} (les carrefours traversés sont
+ *   décidés normalement) ; animation figée
+ * - {@link Band#ASLEEP} : plus du tout déplacé, jusqu'à ce que le joueur se rapproche
+ *
+ * Les ennemis lointains sont répartis sur les pas (décalage par indice) pour lisser le coût.
+ * Un ennemi qui redevient proche rattrape d'abord le temps en attente.
+ *
+ * La bande proche doit couvrir tout l'écran, caméra bornée à la map comprise : un ennemi
+ * visible est toujours déplacé à chaque pas et animé.
+ */
+public class ActivityScheduler {
+
+    /** Bande de distance d'un ennemi */
+    public enum Band {
+        NEAR, FAR, ASLEEP;
+
+        /** Toutes les bandes (copie unique de values()) */
+        public static final Band[] ALL = values();
+    }
+
+    /** Bande proche par défaut, en tuiles : plus que la largeur de la vue (38 tuiles) */
+    public static final int DEFAULT_NEAR_TILES = 40;
+    /** Au-delà, les ennemis dorment, en tuiles */
+    public static final int DEFAULT_FAR_TILES = 160;
+    /** Un ennemi lointain est déplacé un pas sur ce nombre */
+    public static final int DEFAULT_FAR_INTERVAL = 4;
+
+    private final int nearTiles, farTiles, farInterval;
+
+    /** Bande de chaque ennemi (ordinal de {@link Band}) */
+    private byte[] band = new byte[16];
+    /** Pas en attente de chaque ennemi lointain */
+    private int[] pending = new int[16];
+    /** Pas à jouer par chaque ennemi à ce pas-ci, 0 s'il attend */
+    private int[] steps = new int[16];
+    /** Ennemis dans chaque bande au dernier pas */
+    private final int[] counts = new int[Band.ALL.length];
+    /** Pas de simulation depuis la création */
+    private long tick = 0;
+
+    /**
+     * Bandes par défaut.
+     */
+    public ActivityScheduler() {
+        this(DEFAULT_NEAR_TILES, DEFAULT_FAR_TILES, DEFAULT_FAR_INTERVAL);
+    }
+
+    /**
+     * @param nearTiles distance jusqu'à laquelle un ennemi est mis à jour à chaque pas, en tuiles
+     * @param farTiles distance au-delà de laquelle il dort, en tuiles
+     * @param farInterval un ennemi lointain est déplacé un pas sur ce nombre
+     */
+    public ActivityScheduler(int nearTiles, int farTiles, int farInterval) {
+        validate(nearTiles, farTiles, farInterval);
+        this.nearTiles = nearTiles;
+        this.farTiles = farTiles;
+        this.farInterval = farInterval;
+    }
+
+    /**
+     * Vérifie des bandes sans créer de planificateur.
+     * @param nearTiles distance jusqu'à laquelle un ennemi est mis à jour à chaque pas, en tuiles
+     * @param farTiles distance au-delà de laquelle il dort, en tuiles
+     * @param farInterval un ennemi lointain est déplacé un pas sur ce nombre
+     * @throws IllegalArgumentException si les bandes ne sont pas valides
+     */
+    public static void validate(int nearTiles, int farTiles, int farInterval) {
+        if (nearTiles < 0 || farTiles < nearTiles || farInterval < 1)
+            throw new IllegalArgumentException("bandes invalides : " + nearTiles + ", " + farTiles + ", " + farInterval);
+    }
+
+    /**
+     * @return planificateur qui met tous les ennemis à jour à chaque pas
+     */
+    public static ActivityScheduler fullRate() {
+        return new ActivityScheduler(Integer.MAX_VALUE, Integer.MAX_VALUE, 1);
+    }
+
+    /**
+     * Range chaque ennemi dans sa bande et calcule les pas qu'il joue à ce pas-ci.
+     * Marque les ennemis non proches dans l'{@link EnemyStore} (animation figée).
+     * @param e ennemis
+     * @param map carte, pour les coordonnées des tuiles
+     * @param playerTile tuile du joueur, -1 hors de la carte (tous proches)
+     */
+    public void schedule(EnemyStore e, GameMap map, int playerTile) {
+        if (band.length < e.count) {
+            int capacity = Math.max(e.count, band.length * 2);
+            band = Arrays.copyOf(band, capacity);
+            pending = Arrays.copyOf(pending, capacity);
+            steps = Arrays.copyOf(steps, capacity);
+        }
+        Arrays.fill(counts, 0);
+        int width = map.getWidth();
+        int playerCol = playerTile % width, playerRow = playerTile / width;
+
+        for (int i = 0; i < e.count; i++) {
+            int tile = e.tile[i];
+            int distance = 0;
+            if (playerTile >= 0 && tile >= 0) {
+                distance = Math.max(Math.abs(tile % width - playerCol), Math.abs(tile / width - playerRow));
+            }
+
+            Band b = distance <= nearTiles ? Band.NEAR : distance <= farTiles ? Band.FAR : Band.ASLEEP;
+            switch (b) {
+                case NEAR:
+                    /** temps en attente rattrapé en une fois*/
+                    steps[i] = pending[i] + 1;
+                    pending[i] = 0;
+                    e.state[i] &= ~EnemyStore.FAR;
+                    break;
+                case FAR:
+                    pending[i]++;
+                    if ((tick + i) % farInterval == 0) {
+                        steps[i] = pending[i];
+                        pending[i] = 0;
+                    } else {
+                        steps[i] = 0;
+                    }
+                    e.state[i] |= EnemyStore.FAR;
+                    break;
+                default:
+                    /** le temps ne passe pas pour un ennemi endormi*/
+                    steps[i] = 0;
+                    pending[i] = 0;
+                    e.state[i] |= EnemyStore.FAR;
+                    break;
+            }
+            band[i] = (byte) b.ordinal();
+            counts[b.ordinal()]++;
+        }
+        tick++;
+    }
+
+    /**
+     * @param i indice de l'ennemi
+     * @return pas de simulation que l'ennemi joue à ce pas-ci, 0 s'il attend ou dort
+     */
+    public int steps(int i) {
+        return steps[i];
+    }
+
+    /**
+     * @param i indice de l'ennemi
+     * @return bande de l'ennemi au dernier pas
+     */
+    public Band getBand(int i) {
+        return Band.ALL[band[i]];
+    }
+
+    /**
+     * @param band bande
+     * @return nombre d'ennemis dans cette bande au dernier pas
+     */
+    public int getCount(Band band) {
+        return counts[band.ordinal()];
+    }
+
+    /** @return distance jusqu'à laquelle un ennemi est mis à jour à chaque pas, en tuiles */
+    public int getNearTiles() {
+        return nearTiles;
+    }
+
+    /** @return distance au-delà de laquelle un ennemi dort, en tuiles */
+    public int getFarTiles() {
+        return farTiles;
+    }
+
+    /** @return un ennemi lointain est déplacé un pas sur ce nombre */
+    public int getFarInterval() {
+        return farInterval;
+    }
+}
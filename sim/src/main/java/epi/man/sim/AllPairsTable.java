@@ -0,0 +1,194 @@
+package epi.man.sim;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Table des plus courts chemins entre toutes les paires de tuiles traversables,
+ * pour les petites cartes (celle du jeu en a environ 500).
+ * Un octet par paire : la direction du premier pas de la tuile de départ vers la tuile
+ * visée, -1 si elle est atteinte ou inaccessible. Une requête est une lecture de tableau.
+ *
+ * La table peut être gardée sur disque, dans un fichier nommé d'après l'empreinte de la
+ * carte ; elle est alors projetée en mémoire (mmap) au lieu d'être recalculée.
+ * Les déplacements suivent les sorties du {@link JunctionGraph}.
+ */
+public class AllPairsTable implements NavigationService {
+
+    /** Nombre maximal de tuiles traversables (16 Mo de table) */
+    public static final int MAX_TILES = 4096;
+
+    /** "EPNH" : en-tête des fichiers de cache */
+    private static final int MAGIC = 0x45504E48;
+    private static final int VERSION = 1;
+    /** magic, version, largeur, hauteur, nombre de tuiles, empreinte */
+    private static final int HEADER_BYTES = 4 * 5 + 8;
+
+    /** Rang de chaque tuile parmi les traversables, -1 pour un mur */
+    private final int[] rank;
+    /** Nombre de tuiles traversables */
+    private final int count;
+    /** Premier pas de rang i vers rang j, à l'indice i * count + j */
+    private final ByteBuffer matrix;
+
+    private AllPairsTable(int[] rank, int count, ByteBuffer matrix) {
+        this.rank = rank;
+        this.count = count;
+        this.matrix = matrix;
+    }
+
+    /**
+     * Calcule la table en mémoire.
+     * @param map carte
+     * @return la table, null si la carte a plus de {@link #MAX_TILES} tuiles traversables
+     */
+    public static AllPairsTable build(GameMap map) {
+        int count = map.getWalkableCount();
+        if (count > MAX_TILES) return null;
+        int[] rank = ranks(map);
+        ByteBuffer matrix = ByteBuffer.allocate(count * count);
+        fill(map.getJunctions(), rank, count, matrix);
+        return new AllPairsTable(rank, count, matrix);
+    }
+
+    /**
+     * Projette la table depuis le cache disque, ou la calcule et l'y écrit.
+     * Un fichier de cache abîmé ou d'un autre format est recalculé et réécrit ; si le cache
+     * reste illisible, la table est calculée en mémoire.
+     * @param map carte
+     * @param cacheDir dossier du cache, créé si besoin
+     * @return la table, null si la carte a plus de {@link #MAX_TILES} tuiles traversables
+     */
+    public static AllPairsTable cached(GameMap map, Path cacheDir) {
+        int count = map.getWalkableCount();
+        if (count > MAX_TILES) return null;
+        int[] rank = ranks(map);
+
+        long hash = hash(map);
+        Path file = cacheDir.resolve(String.format("nexthop-%016x.bin", hash));
+        try {
+            if (!Files.exists(file)) write(map, rank, count, hash, file);
+            try {
+                return new AllPairsTable(rank, count, map(file, map, count, hash));
+            } catch (IOException stale) {
+                /** fichier abîmé ou d'une autre version : réécrit, pour ne pas tout recalculer au prochain lancement*/
+                System.out.println("Cache de navigation périmé (" + stale.getMessage() + "), réécrit");
+                write(map, rank, count, hash, file);
+                return new AllPairsTable(rank, count, map(file, map, count, hash));
+            }
+        } catch (IOException e) {
+            System.out.println("Cache de navigation inutilisable (" + e.getMessage() + "), calcul en mémoire");
+            return build(map);
+        }
+    }
+
+    @Override
+    public Direction nextStep(int fromTile, int toTile) {
+        if (fromTile < 0 || toTile < 0) return null;
+        int from = rank[fromTile], to = rank[toTile];
+        if (from < 0 || to < 0) return null;
+        byte d = matrix.get(from * count + to);
+        return d < 0 ? null : Direction.ALL[d];
+    }
+
+    /** @return nombre de tuiles traversables couvertes */
+    public int getTileCount() {
+        return count;
+    }
+
+    private static int[] ranks(GameMap map) {
+        int[] rank = new int[map.getWidth() * map.getHeight()];
+        int next = 0;
+        for (int i = 0; i < rank.length; i++) rank[i] = map.isWalkable(i) ? next++ : -1;
+        return rank;
+    }
+
+    /**
+     * Un parcours en largeur inversé par tuile visée, comme {@link FlowField},
+     * qui remplit la colonne de cette tuile.
+     */
+    private static void fill(JunctionGraph graph, int[] rank, int count, ByteBuffer matrix) {
+        int[] tileOf = new int[count];
+        for (int i = 0; i < rank.length; i++) if (rank[i] >= 0) tileOf[rank[i]] = i;
+
+        int[] queue = new int[count];
+        int[] visited = new int[rank.length];
+        byte[] column = new byte[count];
+
+        for (int to = 0; to < count; to++) {
+            int stamp = to + 1;
+            Arrays.fill(column, (byte) -1);
+            int head = 0, tail = 0;
+            queue[tail++] = tileOf[to];
+            visited[tileOf[to]] = stamp;
+
+            while (head < tail) {
+                int tile = queue[head++];
+                for (Direction d : Direction.ALL) {
+                    int n = graph.neighbour(tile, d);
+                    if (n < 0 || visited[n] == stamp || rank[n] < 0) continue;
+                    Direction back = d.opposite();
+                    if ((graph.exits(n) & back.bit()) == 0) continue;
+                    visited[n] = stamp;
+                    column[rank[n]] = (byte) back.ordinal();
+                    queue[tail++] = n;
+                }
+            }
+            for (int from = 0; from < count; from++) matrix.put(from * count + to, column[from]);
+        }
+    }
+
+    /**
+     * Empreinte de la carte (FNV-1a 64 bits) sur ce qui change les chemins :
+     * dimensions et sorties de chaque tuile.
+     */
+    static long hash(GameMap map) {
+        JunctionGraph graph = map.getJunctions();
+        long h = 0xcbf29ce484222325L;
+        h = (h ^ map.getWidth()) * 0x100000001b3L;
+        h = (h ^ map.getHeight()) * 0x100000001b3L;
+        int tiles = map.getWidth() * map.getHeight();
+        for (int i = 0; i < tiles; i++) {
+            int b = map.isWalkable(i) ? 0x10 | graph.exits(i) : 0;
+            h = (h ^ b) * 0x100000001b3L;
+        }
+        return h;
+    }
+
+    /** Calcule la table et l'écrit dans un fichier temporaire renommé à la fin. */
+    private static void write(GameMap map, int[] rank, int count, long hash, Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + count * count).order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(map.getWidth()).putInt(map.getHeight()).putInt(count).putLong(hash);
+        ByteBuffer matrix = buffer.slice();
+        fill(map.getJunctions(), rank, count, matrix);
+        buffer.rewind();
+
+        Path tmp = Files.createTempFile(file.getParent(), "nexthop", ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Projette le fichier en mémoire et vérifie son en-tête. */
+    private static ByteBuffer map(Path file, GameMap map, int count, long hash) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != HEADER_BYTES + (long) count * count)
+                throw new IOException("taille inattendue : " + file);
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                || buffer.getInt() != map.getWidth() || buffer.getInt() != map.getHeight()
+                || buffer.getInt() != count || buffer.getLong() != hash)
+                throw new IOException("en-tête inattendu : " + file);
+            return buffer.slice();
+        }
+    }
+}
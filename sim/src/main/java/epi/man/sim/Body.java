@@ -0,0 +1,92 @@
+package epi.man.sim;
+
+/**
+ * Base des entités simulées (joueur et ennemis).
+ * Fournit :
+ * - une position (x, y) et celle du pas de simulation précédent
+ * - une vitesse
+ * - une boîte de collision de taille fixe
+ */
+public abstract class Body {
+
+    /** Position X de l'entité dans le monde. */
+    protected float x;
+
+    /** Position Y de l'entité dans le monde. */
+    protected float y;
+
+    /** Position au pas de simulation précédent, utilisée pour interpoler l'affichage. */
+    protected float prevX, prevY;
+
+    /** Vitesse de déplacement, en pixels par seconde. */
+    protected float speed;
+
+    /** Dimensions de la boîte de collision. */
+    protected final float width, height;
+
+    /**
+     * @param x position X de départ
+     * @param y position Y de départ
+     * @param speed vitesse de déplacement
+     * @param width largeur de la boîte de collision
+     * @param height hauteur de la boîte de collision
+     */
+    protected Body(float x, float y, float speed, float width, float height) {
+        this.x = x;
+        this.y = y;
+        this.prevX = x;
+        this.prevY = y;
+        this.speed = speed;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Mémorise la position courante avant un nouveau pas de simulation.
+     */
+    public void savePreviousPosition() {
+        prevX = x;
+        prevY = y;
+    }
+
+    /**
+     * Vérifie si les boîtes de collision se chevauchent.
+     * @param other autre entité
+     * @return true si collision
+     */
+    public boolean overlaps(Body other) {
+        boolean ox = x < other.x + other.width && x + width > other.x;
+        boolean oy = y < other.y + other.height && y + height > other.y;
+        return ox && oy;
+    }
+
+    /** @return position X d'affichage interpolée entre le pas précédent (0) et le courant (1) */
+    public float renderX(float alpha) {
+        return prevX + (x - prevX) * alpha;
+    }
+
+    /** @return position Y d'affichage interpolée entre le pas précédent (0) et le courant (1) */
+    public float renderY(float alpha) {
+        return prevY + (y - prevY) * alpha;
+    }
+
+    /** @return position X actuelle */
+    public float getX() {
+        return x;
+    }
+
+    /** @return position Y actuelle */
+    public float getY() {
+        return y;
+    }
+
+    /** @return largeur de la boîte de collision */
+    public float getWidth() {
+        return width;
+    }
+
+    /** @return hauteur de la boîte de collision */
+    public float getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,180 @@
+package epi.man.sim;
+
+import java.nio.LongBuffer;
+
+/**
+ * Stocke les bonus de la carte indexés par tuile.
+ * Un bitset indique les tuiles qui ont encore un bonus, le compteur des bonus
+ * restants est tenu à jour : ramasser un bonus ou lire le nombre restant est en O(1).
+ * Les bonus ne sont pas des objets : le rendu dessine la même image
+ * sur chaque tuile encore présente dans le bitset.
+ */
+public class BonusStore {
+
+    /** Dimensions de la carte en tuiles*/
+    private final int width, height;
+    /** Taille d'une tuile en pixels*/
+    private final int tileSize;
+    /** Bitset des tuiles qui ont encore un bonus*/
+    private final long[] remaining;
+    /** Nombre de bonus placés au chargement*/
+    private int total;
+    /** Nombre de bonus encore sur la carte*/
+    private int remainingCount;
+
+    /**
+     * @param width largeur de la carte en tuiles
+     * @param height hauteur de la carte en tuiles
+     * @param tileSize taille d'une tuile en pixels
+     */
+    public BonusStore(int width, int height, int tileSize) {
+        this.width = width;
+        this.height = height;
+        this.tileSize = tileSize;
+        this.remaining = new long[(width * height + 63) >>> 6];
+    }
+
+    /**
+     * Place un bonus sur une tuile (au chargement).
+     * @param index indice de la tuile (ligne * largeur + colonne)
+     */
+    public void add(int index) {
+        if (contains(index)) return;
+        remaining[index >>> 6] |= 1L << index;
+        total++;
+        remainingCount++;
+    }
+
+    /**
+     * Remplace les bonus par un bitset déjà calculé (fichier .epimap), copié d'un bloc.
+     * @param bits un bit par tuile, même indexation que {@link #add(int)}
+     */
+    void load(LongBuffer bits) {
+        bits.duplicate().get(remaining);
+        int count = 0;
+        for (long word : remaining) count += Long.bitCount(word);
+        total = count;
+        remainingCount = count;
+    }
+
+    /**
+     * @param index indice de la tuile
+     * @return true si la tuile a encore un bonus
+     */
+    public boolean contains(int index) {
+        return (remaining[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Ramasse le bonus d'une tuile.
+     * @param index indice de la tuile
+     * @return true si la tuile avait encore un bonus
+     */
+    public boolean collect(int index) {
+        if (!contains(index)) return false;
+        remaining[index >>> 6] &= ~(1L << index);
+        remainingCount--;
+        return true;
+    }
+
+    /**
+     * Remet un bonus ramassé (bancs d'essai, retour en arrière) : le total ne change pas.
+     * @param index indice d'une tuile dont le bonus a été ramassé par {@link #collect(int)}
+     * @return true si la tuile n'avait plus de bonus
+     */
+    public boolean uncollect(int index) {
+        if (contains(index)) return false;
+        remaining[index >>> 6] |= 1L << index;
+        remainingCount++;
+        return true;
+    }
+
+    /**
+     * Ramasse le premier bonus qui chevauche la boîte donnée.
+     * Seules les tuiles couvertes par la boîte sont testées (4 au plus pour le joueur),
+     * dans l'ordre de lecture du fichier map.
+     * @return l'indice de la tuile ramassée, -1 si aucun bonus
+     */
+    public int collectAt(float x, float y, float w, float h) {
+        if (remainingCount == 0) return -1;
+
+        int col0 = Math.max(0, (int) Math.floor(x / tileSize));
+        int col1 = Math.min(width - 1, (int) Math.ceil((x + w) / tileSize) - 1);
+        int ty0 = Math.max(0, (int) Math.floor(y / tileSize));
+        int ty1 = Math.min(height - 1, (int) Math.ceil((y + h) / tileSize) - 1);
+
+        // ty est compté depuis le bas du monde, les lignes du fichier depuis le haut
+        for (int ty = ty1; ty >= ty0; ty--) {
+            int row = height - 1 - ty;
+            for (int col = col0; col <= col1; col++) {
+                int index = row * width + col;
+                if (collect(index)) return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Indice de la prochaine tuile qui a encore un bonus, pour parcourir le bitset.
+     * @param from indice de départ (inclus)
+     * @return l'indice trouvé, -1 s'il n'y en a plus
+     */
+    public int nextRemaining(int from) {
+        int word = from >>> 6;
+        if (word >= remaining.length) return -1;
+        long bits = remaining[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) return (word << 6) + Long.numberOfTrailingZeros(bits);
+            if (++word == remaining.length) return -1;
+            bits = remaining[word];
+        }
+    }
+
+    /**
+     * Indice de la prochaine tuile qui a encore un bonus, sans chercher au-delà de {@code to}
+     * (une ligne de tuiles visibles, par exemple).
+     * @param from indice de départ (inclus)
+     * @param to indice de fin (exclu)
+     * @return l'indice trouvé, -1 s'il n'y en a pas avant {@code to}
+     */
+    public int nextRemaining(int from, int to) {
+        if (from >= to) return -1;
+        int word = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long bits = remaining[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+                return index < to ? index : -1;
+            }
+            if (++word > last) return -1;
+            bits = remaining[word];
+        }
+    }
+
+    /**
+     * @param index indice de tuile
+     * @return position X en pixels du coin bas gauche
+     */
+    public int worldX(int index) {
+        return (index % width) * tileSize;
+    }
+
+    /**
+     * @param index indice de tuile
+     * @return position Y en pixels du coin bas gauche
+     */
+    public int worldY(int index) {
+        return (height - 1 - index / width) * tileSize;
+    }
+
+    /** @return nombre de bonus restants */
+    public int getRemaining() {
+        return remainingCount;
+    }
+
+    /** @return nombre de bonus au chargement */
+    public int getTotal() {
+        return total;
+    }
+}
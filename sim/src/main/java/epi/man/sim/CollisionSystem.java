@@ -0,0 +1,90 @@
+package epi.man.sim;
+
+/**
+ * Phase de collision d'un pas de simulation.
+ * - broadphase : les ennemis sont rangés dans une {@link SpatialGrid} de la taille des tuiles,
+ *   seuls ceux des cases couvertes par le joueur sont testés
+ * - narrowphase : test exact des boîtes (fixes) joueur / ennemi, puis des tuiles à bonus
+ *   couvertes par le joueur, en un seul passage qui envoie les contacts au listener
+ */
+public class CollisionSystem {
+
+    private final GameMap map;
+    private final Player player;
+    private final EnemyStore enemies;
+    private final SpatialGrid grid;
+    /** Candidats renvoyés par la grille*/
+    private int[] candidates = new int[16];
+    /** Reçoit le bilan de chaque phase*/
+    private Tracer tracer = Tracer.NONE;
+
+    /**
+     * @param map carte, pour la taille de la grille et les bonus
+     * @param player joueur
+     * @param enemies ennemis de la partie (relus à chaque pas)
+     */
+    public CollisionSystem(GameMap map, Player player, EnemyStore enemies) {
+        this.map = map;
+        this.player = player;
+        this.enemies = enemies;
+        this.grid = new SpatialGrid(map);
+    }
+
+    /**
+     * Cherche les contacts du joueur avec les ennemis puis avec les bonus.
+     * @param listener reçoit les contacts
+     */
+    public void detect(ContactListener listener) {
+        tracer.beginCollisions();
+        EnemyStore e = enemies;
+        if (candidates.length < e.count) candidates = new int[Math.max(e.count, candidates.length * 2)];
+
+        grid.build(e.x, e.y, e.width, e.height, e.count);
+        float px = player.x, py = player.y, pw = player.width, ph = player.height;
+        int count = grid.query(px, py, pw, ph, candidates);
+        int contacts = 0;
+        for (int k = 0; k < count; k++) {
+            int i = candidates[k];
+            boolean ox = px < e.x[i] + e.width[i] && px + pw > e.x[i];
+            boolean oy = py < e.y[i] + e.height[i] && py + ph > e.y[i];
+            if (ox && oy) {
+                contacts++;
+                listener.onEnemyContact(i);
+            }
+        }
+
+        detectBonuses(listener);
+        tracer.endCollisions(e.count, count, contacts);
+    }
+
+    /** @param tracer reçoit le bilan de chaque phase, null pour aucun */
+    public void setTracer(Tracer tracer) {
+        this.tracer = tracer == null ? Tracer.NONE : tracer;
+    }
+
+    /**
+     * Les bonus sont déjà rangés par tuile : seules les tuiles couvertes
+     * par la boîte du joueur sont lues (4 au plus).
+     */
+    private void detectBonuses(ContactListener listener) {
+        BonusStore bonuses = map.getBonuses();
+        if (bonuses.getRemaining() == 0) return;
+
+        int tile = GameMap.TILE_SIZE;
+        int height = map.getHeight();
+        float x = player.x, y = player.y;
+        int col0 = Math.max(0, (int) Math.floor(x / tile));
+        int col1 = Math.min(map.getWidth() - 1, (int) Math.ceil((x + player.width) / tile) - 1);
+        int ty0 = Math.max(0, (int) Math.floor(y / tile));
+        int ty1 = Math.min(height - 1, (int) Math.ceil((y + player.height) / tile) - 1);
+
+        // ty est compté depuis le bas du monde, les lignes du fichier depuis le haut
+        for (int ty = ty1; ty >= ty0; ty--) {
+            int row = height - 1 - ty;
+            for (int col = col0; col <= col1; col++) {
+                int index = row * map.getWidth() + col;
+                if (bonuses.contains(index)) listener.onBonusContact(index);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package epi.man.sim;
+
+/**
+ * Contacts trouvés par {@link CollisionSystem} pendant un pas de simulation.
+ */
+public interface ContactListener {
+
+    /**
+     * La boîte du joueur chevauche celle d'un ennemi.
+     * @param enemy indice de l'ennemi touché dans l'{@link EnemyStore}
+     */
+    void onEnemyContact(int enemy);
+
+    /**
+     * La boîte du joueur couvre une tuile qui porte encore un bonus.
+     * @param tileIndex indice de la tuile du bonus
+     */
+    void onBonusContact(int tileIndex);
+}
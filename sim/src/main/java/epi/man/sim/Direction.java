@@ -0,0 +1,35 @@
+package epi.man.sim;
+
+/**
+ * Directions possibles pour les déplacements, sur la grille et dans le monde.
+ * Le monde a l'axe Y vers le haut : UP augmente Y.
+ */
+public enum Direction {
+    UP(0, 1), DOWN(0, -1), LEFT(-1, 0), RIGHT(1, 0);
+
+    /** Déplacement unitaire sur X et Y dans le monde */
+    public final int dx, dy;
+
+    /** Toutes les directions, dans l'ordre des ordinaux (copie unique de values()) */
+    public static final Direction[] ALL = values();
+
+    Direction(int dx, int dy) {
+        this.dx = dx;
+        this.dy = dy;
+    }
+
+    /** @return bit de cette direction dans un masque de sorties ({@link JunctionGraph#exits(int)}) */
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    /** @return direction inverse */
+    public Direction opposite() {
+        switch (this) {
+            case UP: return DOWN;
+            case DOWN: return UP;
+            case LEFT: return RIGHT;
+            default: return LEFT;
+        }
+    }
+}
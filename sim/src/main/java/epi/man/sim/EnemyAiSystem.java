@@ -0,0 +1,98 @@
+package epi.man.sim;
+
+/**
+ * Choix de direction des ennemis arrêtés sur un carrefour.
+ *
+ * Un ennemi qui vise une tuile prend le premier pas du chemin vers elle,
+ * un ennemi qui poursuit le premier pas du champ vers le joueur.
+ * Sinon, IA basée sur priorités : la première direction de son IA qui est une sortie
+ * de la tuile est lue dans la table compilée ({@link PolicyTable}). L'ennemi vise ensuite
+ * le carrefour au bout du couloir.
+ */
+public class EnemyAiSystem {
+
+    /** Sorties et carrefours de la carte. */
+    private final JunctionGraph graph;
+
+    /** IA compilées pour la carte, indexées par ordinal de {@link EnemyPolicy}. */
+    private final PolicyTable[] decisions;
+
+    /** Champ vers le joueur, suivi par les IA qui poursuivent ; null si aucun. */
+    private final FlowField chase;
+
+    /** IA qui suivent {@link #chase}, indexées par ordinal. */
+    private final boolean[] chases;
+
+    /** Chemins vers une tuile quelconque, null si la carte n'en a pas. */
+    private final NavigationService navigation;
+
+    /** Reçoit chaque décision. */
+    private Tracer tracer = Tracer.NONE;
+
+    /**
+     * @param map carte de la partie
+     * @param chase champ vers le joueur pour les IA {@link Targeting#CHASE}, null si aucun
+     * @param navigation chemins vers une tuile quelconque, null si aucun
+     */
+    public EnemyAiSystem(GameMap map, FlowField chase, NavigationService navigation) {
+        this.graph = map.getJunctions();
+        this.chase = chase;
+        this.navigation = navigation;
+        this.decisions = new PolicyTable[EnemyPolicy.ALL.length];
+        this.chases = new boolean[EnemyPolicy.ALL.length];
+        for (EnemyPolicy p : EnemyPolicy.ALL) {
+            decisions[p.ordinal()] = map.getPolicyTable(p);
+            chases[p.ordinal()] = chase != null && p.targeting() == Targeting.CHASE;
+        }
+    }
+
+    /**
+     * Choisit la direction de l'ennemi i sur sa tuile et le carrefour visé.
+     * @return false si la tuile n'a aucune sortie
+     */
+    boolean decide(EnemyStore e, int i) {
+        return apply(e, i, choose(e, i, navigation));
+    }
+
+    /**
+     * Choisit la direction de l'ennemi i sur sa tuile, sans rien modifier : ne lit que la colonne
+     * de l'ennemi et l'état partagé (carte, champ de poursuite, tuiles visées), figés pendant
+     * la phase de décision. Peut être appelée en parallèle pour des ennemis différents.
+     * @param navigation chemins, propres au thread appelant ({@link NavigationService#forWorker()})
+     * @return la direction, null si la tuile n'a aucune sortie
+     */
+    Direction choose(EnemyStore e, int i, NavigationService navigation) {
+        int tile = e.tile[i];
+        int p = e.policy[i];
+        Direction d = null;
+        if (e.goal[i] >= 0 && navigation != null) d = navigation.nextStep(tile, e.goal[i]);
+        else if (chases[p]) d = chase.direction(tile);
+        if (d == null) d = decisions[p].next(tile, Direction.ALL[e.direction[i]]);
+        return d;
+    }
+
+    /**
+     * Applique la direction choisie : l'ennemi i vise le carrefour au bout du couloir.
+     * @param d direction de {@link #choose}, null si aucune
+     * @return false si la tuile n'a aucune sortie
+     */
+    boolean apply(EnemyStore e, int i, Direction d) {
+        if (d == null) return false;
+        int tile = e.tile[i];
+        e.direction[i] = (byte) d.ordinal();
+        e.target[i] = graph.target(tile, d);
+        e.remaining[i] = graph.length(tile, d) * (float) GameMap.TILE_SIZE;
+        tracer.decision(i, tile, d, e.goal[i]);
+        return true;
+    }
+
+    /** @return chemins vers une tuile quelconque, null si la carte n'en a pas */
+    NavigationService getNavigation() {
+        return navigation;
+    }
+
+    /** @param tracer reçoit chaque décision, null pour aucun */
+    public void setTracer(Tracer tracer) {
+        this.tracer = tracer == null ? Tracer.NONE : tracer;
+    }
+}
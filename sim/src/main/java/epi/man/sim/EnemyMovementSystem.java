@@ -0,0 +1,169 @@
+package epi.man.sim;
+
+import java.util.Arrays;
+
+/**
+ * Déplacement de tous les ennemis pendant un pas de simulation, en un parcours de
+ * l'{@link EnemyStore}.
+ * Gère :
+ * - la sortie de l'enclos (Pac-Man style) : tant qu'il est sur la porte '-', l'ennemi monte
+ * - le blocage de la porte après sortie de l'enclos (les portes ne sont pas des sorties du graphe)
+ * - un déplacement de tuile en tuile sur le {@link JunctionGraph} de la carte
+ *
+ * L'ennemi ne choisit sa direction que sur un carrefour ({@link EnemyAiSystem}). Entre deux
+ * carrefours il avance dans le couloir droit jusqu'au suivant, sans relire la carte.
+ *
+ * Avec des {@link ParallelDecisions}, un pas se fait en trois phases : déplacement jusqu'au
+ * premier carrefour, choix des directions en parallèle, puis application des directions et
+ * fin du déplacement dans l'ordre des ennemis, sur le thread appelant.
+ */
+public class EnemyMovementSystem {
+
+    private final GameMap map;
+    private final JunctionGraph graph;
+    private final EnemyAiSystem ai;
+    /** Décisions en parallèle, null pour décider sur place */
+    private ParallelDecisions parallel;
+
+    /** Ennemis arrêtés sur un carrefour pendant le pas, distance qu'il leur reste à parcourir, direction choisie */
+    private int[] waiting = new int[16];
+    private float[] carry = new float[16];
+    private byte[] decided = new byte[16];
+    private int waitingCount;
+
+    /**
+     * @param map carte de la partie
+     * @param ai choix de direction aux carrefours
+     */
+    public EnemyMovementSystem(GameMap map, EnemyAiSystem ai) {
+        this.map = map;
+        this.graph = map.getJunctions();
+        this.ai = ai;
+    }
+
+    /**
+     * Fait avancer chaque ennemi :
+     * 1. S’il est encore dans l’enclos → il monte jusqu’à sortir.
+     * 2. Une fois sorti → suit les couloirs et choisit aux carrefours.
+     * @param e ennemis
+     * @param delta durée d'un pas de simulation
+     */
+    public void update(EnemyStore e, float delta) {
+        for (int i = 0; i < e.count; i++) move(e, i, delta, false);
+    }
+
+    /**
+     * Fait avancer chaque ennemi du nombre de pas donné par le planificateur : un pas pour
+     * les ennemis proches, plusieurs d'un coup ou aucun pour les lointains.
+     * @param e ennemis
+     * @param delta durée d'un pas de simulation
+     * @param activity pas à jouer par chaque ennemi, déjà calculés pour ce pas
+     */
+    public void update(EnemyStore e, float delta, ActivityScheduler activity) {
+        if (parallel == null) {
+            for (int i = 0; i < e.count; i++) {
+                int steps = activity.steps(i);
+                if (steps > 0) move(e, i, delta * steps, false);
+            }
+            return;
+        }
+
+        if (waiting.length < e.count) {
+            int capacity = Math.max(e.count, waiting.length * 2);
+            waiting = Arrays.copyOf(waiting, capacity);
+            carry = Arrays.copyOf(carry, capacity);
+            decided = Arrays.copyOf(decided, capacity);
+        }
+        // 1. jusqu'au premier carrefour
+        waitingCount = 0;
+        for (int i = 0; i < e.count; i++) {
+            int steps = activity.steps(i);
+            if (steps > 0) move(e, i, delta * steps, true);
+        }
+        // 2. directions choisies en parallèle, rien n'est modifié
+        parallel.decide(e, waiting, waitingCount, decided);
+        // 3. directions appliquées dans l'ordre des ennemis, puis fin du pas
+        for (int k = 0; k < waitingCount; k++) {
+            int i = waiting[k];
+            byte d = decided[i];
+            if (!ai.apply(e, i, d < 0 ? null : Direction.ALL[d])) continue;
+            walk(e, i, carry[i], false);
+        }
+    }
+
+    /**
+     * @param parallel décisions en parallèle, null pour décider sur place au fil du déplacement
+     */
+    public void setParallel(ParallelDecisions parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * @param park true pour arrêter l'ennemi au premier carrefour et le mettre en attente
+     * de décision, false pour décider sur place
+     */
+    private void move(EnemyStore e, int i, float delta, boolean park) {
+        int tile = e.tile[i];
+        if (tile < 0) return;
+
+        float step = e.speed[i] * delta;
+
+        // ————— SORTIE DE L'ENCLOS —————
+        if ((e.state[i] & EnemyStore.LEFT_PEN) == 0) {
+
+            // encore dedans → monter jusqu’à la sortie
+            if (map.getTileId(tile) == TileType.DOOR) {
+                if (e.target[i] < 0) {
+                    int up = graph.neighbour(tile, Direction.UP);
+                    if (!map.isWalkable(up)) return;
+                    e.direction[i] = (byte) Direction.UP.ordinal();
+                    e.target[i] = up;
+                    e.remaining[i] = GameMap.TILE_SIZE;
+                }
+                if (advance(e, i, step) >= 0 && map.getTileId(e.tile[i]) != TileType.DOOR) {
+                    e.state[i] |= EnemyStore.LEFT_PEN;
+                }
+                return;
+            }
+            else {
+                e.state[i] |= EnemyStore.LEFT_PEN;
+            }
+        }
+
+        walk(e, i, step, park);
+    }
+
+    // ————— DÉPLACEMENT DE CARREFOUR EN CARREFOUR —————
+    private void walk(EnemyStore e, int i, float step, boolean park) {
+        while (step > 0) {
+            if (e.target[i] < 0) {
+                if (park) {
+                    carry[i] = step;
+                    waiting[waitingCount++] = i;
+                    return;
+                }
+                if (!ai.decide(e, i)) return;
+            }
+            step = advance(e, i, step);
+        }
+    }
+
+    /**
+     * Avance l'ennemi i vers sa cible.
+     * @return distance restante après l'arrivée sur la cible, -1 si elle n'est pas atteinte
+     */
+    private static float advance(EnemyStore e, int i, float step) {
+        if (step < e.remaining[i]) {
+            Direction d = Direction.ALL[e.direction[i]];
+            e.x[i] += d.dx * step;
+            e.y[i] += d.dy * step;
+            e.remaining[i] -= step;
+            return -1;
+        }
+        step -= e.remaining[i];
+        e.tile[i] = e.target[i];
+        e.target[i] = -1;
+        e.snapTo(i, e.tile[i]);
+        return step;
+    }
+}
@@ -0,0 +1,71 @@
+package epi.man.sim;
+
+import static epi.man.sim.Direction.DOWN;
+import static epi.man.sim.Direction.LEFT;
+import static epi.man.sim.Direction.RIGHT;
+import static epi.man.sim.Direction.UP;
+
+/**
+ * IA de déplacement de chaque ennemi : un ordre de priorité des directions
+ * pour chaque direction courante. L'ennemi prend la première direction possible,
+ * sinon il garde la sienne.
+ * Une IA qui vise une tuile ({@link Targeting}) s'en rapproche d'abord, l'ordre de
+ * priorité ne sert que si la tuile est atteinte ou inaccessible.
+ */
+public enum EnemyPolicy {
+
+    /** continue d’abord dans sa direction, sinon teste les directions proches. */
+    ADRIEN(Targeting.WANDER,
+        new Direction[]{UP, RIGHT, LEFT, DOWN},
+        new Direction[]{DOWN, RIGHT, LEFT, UP},
+        new Direction[]{LEFT, DOWN, UP, RIGHT},
+        new Direction[]{RIGHT, UP, DOWN, LEFT}),
+
+    /** poursuit le joueur ; sinon comme Adrien mais préfère la gauche en montant. */
+    FLORIAN(Targeting.CHASE,
+        new Direction[]{UP, LEFT, RIGHT, DOWN},
+        new Direction[]{DOWN, RIGHT, LEFT, UP},
+        new Direction[]{LEFT, DOWN, UP, RIGHT},
+        new Direction[]{RIGHT, UP, DOWN, LEFT}),
+
+    /** tend une embuscade devant le joueur ; sinon ordre de priorité personnalisé. */
+    LYANN(Targeting.AMBUSH,
+        new Direction[]{UP, LEFT, RIGHT, DOWN},
+        new Direction[]{DOWN, LEFT, RIGHT, UP},
+        new Direction[]{LEFT, UP, DOWN, RIGHT},
+        new Direction[]{RIGHT, UP, DOWN, LEFT}),
+
+    /** prend le joueur en tenaille avec Florian ; sinon pattern unique, peut faire demi-tour en montant. */
+    GUILLAUME(Targeting.FLANK,
+        new Direction[]{UP, RIGHT, DOWN, LEFT},
+        new Direction[]{DOWN, RIGHT, LEFT, UP},
+        new Direction[]{LEFT, DOWN, RIGHT, UP},
+        new Direction[]{RIGHT, DOWN, LEFT, UP});
+
+    /** Toutes les IA, dans l'ordre des ordinaux (copie unique de values()) */
+    public static final EnemyPolicy[] ALL = values();
+
+    /** Ordre de priorité, indexé par l'ordinal de la direction courante */
+    private final Direction[][] priorities;
+
+    /** Tuile visée aux carrefours */
+    private final Targeting targeting;
+
+    EnemyPolicy(Targeting targeting, Direction[] up, Direction[] down, Direction[] left, Direction[] right) {
+        this.targeting = targeting;
+        this.priorities = new Direction[][]{up, down, left, right};
+    }
+
+    /** @return tuile visée par l'ennemi aux carrefours */
+    public Targeting targeting() {
+        return targeting;
+    }
+
+    /**
+     * @param current direction courante de l'ennemi
+     * @return directions à essayer, dans l'ordre (ne pas modifier)
+     */
+    public Direction[] priorities(Direction current) {
+        return priorities[current.ordinal()];
+    }
+}
@@ -0,0 +1,210 @@
+package epi.man.sim;
+
+import java.util.Arrays;
+
+/**
+ * Données de tous les ennemis d'une partie, rangées par composant (structure de tableaux) :
+ * l'ennemi i est la colonne i de chaque tableau. Les systèmes ({@link EnemyMovementSystem},
+ * {@link EnemyAiSystem}, {@link CollisionSystem}) parcourent ces tableaux d'un bout à l'autre
+ * au lieu d'appeler une méthode par objet.
+ *
+ * Un ennemi se déplace de tuile en tuile sur le {@link JunctionGraph} de la carte, sa boîte
+ * de collision, de taille fixe, centrée dans la tuile.
+ */
+public class EnemyStore {
+
+    /** Bit de {@link #state} : l'ennemi a quitté son enclos une première fois */
+    static final byte LEFT_PEN = 1;
+    /** Bit de {@link #state} : l'ennemi est loin du joueur, pas mis à jour à chaque pas ({@link ActivityScheduler}) */
+    static final byte FAR = 2;
+
+    /** Nombre d'ennemis */
+    int count;
+
+    /** Position et position au pas précédent (pour interpoler l'affichage) */
+    float[] x, y, prevX, prevY;
+    /** Boîte de collision */
+    float[] width, height;
+    /** Vitesse, en pixels par seconde */
+    float[] speed;
+    /** Distance restante jusqu'à {@link #target}, en pixels */
+    float[] remaining;
+
+    /** Ordinal de la {@link Direction} actuelle */
+    byte[] direction;
+    /** Bits d'état ({@link #LEFT_PEN}, {@link #FAR}) */
+    byte[] state;
+    /** Ordinal de l'{@link EnemyPolicy} */
+    byte[] policy;
+
+    /** Dernière tuile atteinte, -1 hors de la carte */
+    int[] tile;
+    /** Tuile visée par le déplacement en cours, -1 si à l'arrêt sur {@link #tile} */
+    int[] target;
+    /** Tuile visée aux carrefours, -1 si aucune */
+    int[] goal;
+    /** Tuile d'apparition, dans l'enclos */
+    int[] spawnTile;
+
+    private final GameMap map;
+
+    /**
+     * @param map carte sur laquelle se déplacent les ennemis
+     * @param capacity nombre d'ennemis prévus (les tableaux grandissent au besoin)
+     */
+    public EnemyStore(GameMap map, int capacity) {
+        this.map = map;
+        allocate(Math.max(capacity, 4));
+    }
+
+    private void allocate(int capacity) {
+        x = grow(x, capacity);
+        y = grow(y, capacity);
+        prevX = grow(prevX, capacity);
+        prevY = grow(prevY, capacity);
+        width = grow(width, capacity);
+        height = grow(height, capacity);
+        speed = grow(speed, capacity);
+        remaining = grow(remaining, capacity);
+        direction = grow(direction, capacity);
+        state = grow(state, capacity);
+        policy = grow(policy, capacity);
+        tile = grow(tile, capacity);
+        target = grow(target, capacity);
+        goal = grow(goal, capacity);
+        spawnTile = grow(spawnTile, capacity);
+    }
+
+    private static float[] grow(float[] a, int n) {
+        return a == null ? new float[n] : Arrays.copyOf(a, n);
+    }
+
+    private static byte[] grow(byte[] a, int n) {
+        return a == null ? new byte[n] : Arrays.copyOf(a, n);
+    }
+
+    private static int[] grow(int[] a, int n) {
+        return a == null ? new int[n] : Arrays.copyOf(a, n);
+    }
+
+    /**
+     * Ajoute un ennemi, placé au centre de la tuile qui contient le centre de sa boîte.
+     * @param policy IA de déplacement
+     * @param x position X de départ
+     * @param y position Y de départ
+     * @param speed vitesse de déplacement
+     * @param width largeur de la boîte de collision
+     * @param height hauteur de la boîte de collision
+     * @return indice de l'ennemi
+     */
+    public int add(EnemyPolicy policy, float x, float y, float speed, float width, float height) {
+        if (count == this.x.length) allocate(count * 2);
+        int i = count++;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.width[i] = width;
+        this.height[i] = height;
+        this.speed[i] = speed;
+        this.remaining[i] = 0;
+        this.direction[i] = (byte) Direction.UP.ordinal();
+        this.state[i] = 0;
+        this.policy[i] = (byte) policy.ordinal();
+        this.target[i] = -1;
+        this.goal[i] = -1;
+
+        int t = map.tileIndexAtWorld(x + width / 2f, y + height / 2f);
+        this.tile[i] = t;
+        this.spawnTile[i] = t;
+        if (t >= 0) snapTo(i, t);
+        prevX[i] = this.x[i];
+        prevY[i] = this.y[i];
+        return i;
+    }
+
+    /** Place la boîte d'un ennemi au centre d'une tuile. */
+    void snapTo(int i, int index) {
+        x[i] = map.worldX(index) + (GameMap.TILE_SIZE - width[i]) / 2f;
+        y[i] = map.worldY(index) + (GameMap.TILE_SIZE - height[i]) / 2f;
+    }
+
+    /**
+     * Mémorise la position courante de tous les ennemis avant un nouveau pas de simulation.
+     */
+    public void savePreviousPositions() {
+        System.arraycopy(x, 0, prevX, 0, count);
+        System.arraycopy(y, 0, prevY, 0, count);
+    }
+
+    /** @return nombre d'ennemis */
+    public int size() {
+        return count;
+    }
+
+    /** @return position X actuelle de l'ennemi i */
+    public float getX(int i) {
+        return x[i];
+    }
+
+    /** @return position Y actuelle de l'ennemi i */
+    public float getY(int i) {
+        return y[i];
+    }
+
+    /** @return position X d'affichage interpolée entre le pas précédent (0) et le courant (1) */
+    public float renderX(int i, float alpha) {
+        return prevX[i] + (x[i] - prevX[i]) * alpha;
+    }
+
+    /** @return position Y d'affichage interpolée entre le pas précédent (0) et le courant (1) */
+    public float renderY(int i, float alpha) {
+        return prevY[i] + (y[i] - prevY[i]) * alpha;
+    }
+
+    /** @return largeur de la boîte de collision de l'ennemi i */
+    public float getWidth(int i) {
+        return width[i];
+    }
+
+    /** @return hauteur de la boîte de collision de l'ennemi i */
+    public float getHeight(int i) {
+        return height[i];
+    }
+
+    /** @return direction actuelle de l'ennemi i */
+    public Direction getDirection(int i) {
+        return Direction.ALL[direction[i]];
+    }
+
+    /** @return true une fois l'ennemi i sorti de l'enclos */
+    public boolean hasLeftPen(int i) {
+        return (state[i] & LEFT_PEN) != 0;
+    }
+
+    /** @return true si l'ennemi i est trop loin du joueur pour être mis à jour à chaque pas (animation figée) */
+    public boolean isFar(int i) {
+        return (state[i] & FAR) != 0;
+    }
+
+    /** @return IA de déplacement de l'ennemi i */
+    public EnemyPolicy getPolicy(int i) {
+        return EnemyPolicy.ALL[policy[i]];
+    }
+
+    /** @return dernière tuile atteinte par l'ennemi i, -1 hors carte */
+    public int getTile(int i) {
+        return tile[i];
+    }
+
+    /** @return tuile d'apparition de l'ennemi i, dans l'enclos */
+    public int getSpawnTile(int i) {
+        return spawnTile[i];
+    }
+
+    /**
+     * @param i indice de l'ennemi
+     * @param goal tuile à viser au prochain carrefour, -1 pour aucune
+     */
+    public void setGoal(int i, int goal) {
+        this.goal[i] = goal;
+    }
+}
@@ -0,0 +1,61 @@
+package epi.man.sim;
+
+/**
+ * Découpe le temps réel en pas de simulation de durée fixe.
+ * Le temps écoulé s'accumule et est consommé par pas constants, au plus
+ * {@code maxStepsPerFrame} par frame ; le retard restant après ce plafond est abandonné
+ * plutôt que rattrapé, pour éviter l'emballement après une grosse saccade.
+ */
+public class FixedStepLoop {
+
+    /** Durée fixe d'un pas, en secondes*/
+    private final float stepDuration;
+    /** Nombre maximal de pas rattrapés en une frame*/
+    private final int maxStepsPerFrame;
+    /** Temps écoulé pas encore consommé*/
+    private float accumulator = 0f;
+
+    /**
+     * @param tickRate nombre de pas par seconde
+     * @param maxStepsPerFrame nombre maximal de pas rattrapés en une frame
+     */
+    public FixedStepLoop(int tickRate, int maxStepsPerFrame) {
+        if (tickRate <= 0) throw new IllegalArgumentException("tickRate doit être positif : " + tickRate);
+        if (maxStepsPerFrame <= 0) throw new IllegalArgumentException("maxStepsPerFrame doit être positif : " + maxStepsPerFrame);
+        this.stepDuration = 1f / tickRate;
+        this.maxStepsPerFrame = maxStepsPerFrame;
+    }
+
+    /**
+     * Ajoute le temps d'une frame et consomme les pas correspondants.
+     * @param frameDelta temps écoulé depuis la frame précédente
+     * @return nombre de pas à simuler pour cette frame
+     */
+    public int advance(float frameDelta) {
+        accumulator += frameDelta;
+        int steps = 0;
+        while (accumulator >= stepDuration && steps < maxStepsPerFrame) {
+            accumulator -= stepDuration;
+            steps++;
+        }
+        if (accumulator >= stepDuration) accumulator = 0f;
+        return steps;
+    }
+
+    /**
+     * @return avancement entre le dernier pas simulé (0) et le suivant (1), pour interpoler l'affichage
+     */
+    public float alpha() {
+        return accumulator / stepDuration;
+    }
+
+    /** Oublie le temps accumulé (nouvelle partie). */
+    public void reset() {
+        accumulator = 0f;
+    }
+
+    /** @return durée d'un pas, en secondes */
+    public float getStepDuration() {
+        return stepDuration;
+    }
+}
@@ -0,0 +1,97 @@
+package epi.man.sim;
+
+import java.util.Arrays;
+
+/**
+ * Champ de distances (BFS) vers une tuile source, en général celle du joueur.
+ * Pour chaque tuile on garde la distance en tuiles jusqu'à la source et la direction
+ * du premier pas vers elle : un ennemi qui poursuit lit son meilleur coup en O(1),
+ * quel que soit le nombre d'ennemis.
+ *
+ * Le champ n'est recalculé que lorsque la source change de tuile, dans des tableaux
+ * alloués une seule fois. Les déplacements suivent les sorties du {@link JunctionGraph}
+ * (pas de passage par les portes de l'enclos).
+ */
+public class FlowField {
+
+    /** Distance d'une tuile qui ne mène pas à la source*/
+    public static final short UNREACHABLE = Short.MAX_VALUE;
+
+    private final JunctionGraph graph;
+    /** Distance de chaque tuile à la source, en tuiles*/
+    private final short[] distance;
+    /** Ordinal de la direction du premier pas vers la source, -1 si aucune*/
+    private final byte[] flow;
+    /** File du parcours en largeur*/
+    private final int[] queue;
+    /** Tuile source du dernier calcul, -1 avant le premier*/
+    private int source = -1;
+
+    /**
+     * @param map carte sur laquelle le champ est calculé
+     */
+    public FlowField(GameMap map) {
+        this.graph = map.getJunctions();
+        int tiles = map.getWidth() * map.getHeight();
+        this.distance = new short[tiles];
+        this.flow = new byte[tiles];
+        this.queue = new int[tiles];
+        Arrays.fill(distance, UNREACHABLE);
+        Arrays.fill(flow, (byte) -1);
+    }
+
+    /**
+     * Recalcule le champ si la source a changé de tuile.
+     * @param sourceTile tuile source, -1 (hors carte) garde le champ actuel
+     * @return true si le champ a été recalculé
+     */
+    public boolean update(int sourceTile) {
+        if (sourceTile < 0 || sourceTile == source) return false;
+        source = sourceTile;
+
+        Arrays.fill(distance, UNREACHABLE);
+        Arrays.fill(flow, (byte) -1);
+
+        int head = 0, tail = 0;
+        queue[tail++] = sourceTile;
+        distance[sourceTile] = 0;
+
+        while (head < tail) {
+            int tile = queue[head++];
+            short next = (short) Math.min(distance[tile] + 1, UNREACHABLE - 1);
+            for (Direction d : Direction.ALL) {
+                int n = graph.neighbour(tile, d);
+                if (n < 0 || distance[n] != UNREACHABLE) continue;
+                // le voisin doit pouvoir revenir vers cette tuile
+                Direction back = d.opposite();
+                if ((graph.exits(n) & back.bit()) == 0) continue;
+                distance[n] = next;
+                flow[n] = (byte) back.ordinal();
+                queue[tail++] = n;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param tile indice de tuile
+     * @return direction du premier pas vers la source, null sur la source ou si elle est inaccessible
+     */
+    public Direction direction(int tile) {
+        byte d = flow[tile];
+        return d < 0 ? null : Direction.ALL[d];
+    }
+
+    /**
+     * @param tile indice de tuile
+     * @return distance à la source en tuiles, {@link #UNREACHABLE} si inaccessible
+     */
+    public short distance(int tile) {
+        return distance[tile];
+    }
+
+    /** @return tuile source du dernier calcul, -1 avant le premier */
+    public int getSource() {
+        return source;
+    }
+}
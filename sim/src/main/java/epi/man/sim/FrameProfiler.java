@@ -0,0 +1,186 @@
+package epi.man.sim;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Mesures par phase des dernières frames, dans des tampons circulaires alloués une fois.
+ * Pendant une frame, {@link #begin(Metric)} / {@link #end(Metric)} cumulent la durée de
+ * chaque phase (une phase de simulation peut tourner plusieurs pas) et {@link #add(Metric, long)}
+ * les compteurs ; {@link #endFrame()} range la frame dans les tampons.
+ * Les percentiles sont calculés sur les {@link #getWindow()} dernières frames.
+ */
+public class FrameProfiler {
+
+    /** Nombre de frames gardées par défaut (une quinzaine de secondes à 60 images par seconde) */
+    public static final int DEFAULT_WINDOW = 1024;
+
+    /** Profiler qui n'enregistre rien */
+    public static final FrameProfiler NONE = new FrameProfiler(1, false);
+
+    private final boolean enabled;
+    private final int window;
+
+    /** Valeurs des dernières frames : samples[metric][frame % window] */
+    private final long[][] samples;
+    /** Frame en cours : début de chaque phase et valeurs cumulées */
+    private final long[] started, current;
+    /** Copie triée pour les percentiles */
+    private final long[] sorted;
+
+    /** Nombre de frames enregistrées depuis la création */
+    private long frames = 0;
+
+    /** Reçoit aussi le début et la fin de chaque phase */
+    private Tracer tracer = Tracer.NONE;
+
+    /**
+     * Profiler de {@link #DEFAULT_WINDOW} frames.
+     */
+    public FrameProfiler() {
+        this(DEFAULT_WINDOW, true);
+    }
+
+    /**
+     * @param window nombre de frames gardées pour les percentiles
+     */
+    public FrameProfiler(int window) {
+        this(window, true);
+    }
+
+    private FrameProfiler(int window, boolean enabled) {
+        this.enabled = enabled;
+        this.window = window;
+        this.samples = new long[Metric.ALL.length][window];
+        this.started = new long[Metric.ALL.length];
+        this.current = new long[Metric.ALL.length];
+        this.sorted = new long[window];
+    }
+
+    /** Début d'une phase de la frame en cours. */
+    public void begin(Metric metric) {
+        if (enabled) started[metric.ordinal()] = System.nanoTime();
+        tracer.beginPhase(metric);
+    }
+
+    /** Fin d'une phase : sa durée s'ajoute à la frame en cours. */
+    public void end(Metric metric) {
+        if (enabled) current[metric.ordinal()] += System.nanoTime() - started[metric.ordinal()];
+        tracer.endPhase(metric);
+    }
+
+    /**
+     * Ajoute une valeur à un compteur de la frame en cours.
+     * @param metric compteur
+     * @param value valeur ajoutée
+     */
+    public void add(Metric metric, long value) {
+        if (enabled) current[metric.ordinal()] += value;
+    }
+
+    /**
+     * Range la frame en cours dans les tampons et en commence une nouvelle.
+     */
+    public void endFrame() {
+        if (!enabled) return;
+        int slot = (int) (frames % window);
+        for (int m = 0; m < current.length; m++) {
+            samples[m][slot] = current[m];
+            current[m] = 0;
+        }
+        frames++;
+    }
+
+    /**
+     * p50, p95, p99 et maximum d'une mesure sur les dernières frames.
+     * @param metric mesure
+     * @param out reçoit les 4 valeurs (au moins 4 cases)
+     * @return out
+     */
+    public long[] percentiles(Metric metric, long[] out) {
+        int n = getWindow();
+        if (n == 0) {
+            Arrays.fill(out, 0, 4, 0);
+            return out;
+        }
+        System.arraycopy(samples[metric.ordinal()], 0, sorted, 0, n);
+        Arrays.sort(sorted, 0, n);
+        out[0] = rank(n, 0.50);
+        out[1] = rank(n, 0.95);
+        out[2] = rank(n, 0.99);
+        out[3] = sorted[n - 1];
+        return out;
+    }
+
+    /** Valeur de rang q dans {@link #sorted} (méthode du rang le plus proche). */
+    private long rank(int n, double q) {
+        int index = (int) Math.ceil(q * n) - 1;
+        return sorted[Math.max(0, Math.min(n - 1, index))];
+    }
+
+    /**
+     * @param metric mesure
+     * @return valeur de la dernière frame terminée, 0 si aucune
+     */
+    public long last(Metric metric) {
+        return frames == 0 ? 0 : samples[metric.ordinal()][(int) ((frames - 1) % window)];
+    }
+
+    /**
+     * @param metric mesure
+     * @param framesAgo 0 pour la dernière frame terminée, 1 pour la précédente…
+     * @return valeur de cette frame, 0 si elle n'est plus (ou pas encore) dans les tampons
+     */
+    public long get(Metric metric, int framesAgo) {
+        if (framesAgo < 0 || framesAgo >= getWindow()) return 0;
+        return samples[metric.ordinal()][(int) ((frames - 1 - framesAgo) % window)];
+    }
+
+    /**
+     * Écrit le résumé des dernières frames au format CSV :
+     * une ligne par mesure avec son unité, p50, p95, p99, maximum et moyenne.
+     * @param out destination
+     * @throws IOException si l'écriture échoue
+     */
+    public void writeCsv(Appendable out) throws IOException {
+        out.append("metric,unit,frames,p50,p95,p99,max,mean\n");
+        long[] p = new long[4];
+        int n = getWindow();
+        for (Metric metric : Metric.ALL) {
+            percentiles(metric, p);
+            long sum = 0;
+            for (int i = 0; i < n; i++) sum += samples[metric.ordinal()][i];
+            out.append(metric.name()).append(',')
+                .append(metric.timing ? "ns" : "count").append(',')
+                .append(String.valueOf(n)).append(',')
+                .append(String.valueOf(p[0])).append(',')
+                .append(String.valueOf(p[1])).append(',')
+                .append(String.valueOf(p[2])).append(',')
+                .append(String.valueOf(p[3])).append(',')
+                .append(String.valueOf(n == 0 ? 0 : sum / n)).append('\n');
+        }
+    }
+
+    /**
+     * Transmet aussi le début et la fin de chaque phase, sauf pour {@link #NONE} qui reste muet.
+     * @param tracer événements de la session, null pour aucun
+     */
+    public void setTracer(Tracer tracer) {
+        if (enabled) this.tracer = tracer == null ? Tracer.NONE : tracer;
+    }
+
+    /** @return nombre de frames dans les tampons (au plus la taille de la fenêtre) */
+    public int getWindow() {
+        return (int) Math.min(frames, window);
+    }
+
+    /** @return nombre de frames enregistrées depuis la création */
+    public long getFrames() {
+        return frames;
+    }
+
+    /** @return false pour {@link #NONE} */
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
@@ -0,0 +1,324 @@
+package epi.man.sim;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Carte du jeu compilée : grille d'ids de tuiles, bitset des tuiles traversables et bonus.
+ * Aucune dépendance à libGDX, la carte est construite depuis le texte du fichier map,
+ * ou lue dans un fichier {@link MapFile} (.epimap) dont la grille et le bitset sont
+ * utilisés sur place, sans copie.
+ *
+ * Les indices de tuile se lisent ligne par ligne depuis le haut du fichier,
+ * alors que le monde a l'axe Y vers le haut.
+ */
+public class GameMap {
+
+    /**Taille d'une tuile de la carte, en pixels du monde*/
+    public static final int TILE_SIZE = 50;
+
+    /** Largeur et hauteur de la carte en tuiles*/
+    private final int width, height;
+    /** Id de chaque tuile ({@link TileType}), ligne par ligne depuis le haut du fichier*/
+    private ByteBuffer tiles;
+    /** Bitset des tuiles traversables, même indexation que {@link #tiles}*/
+    private LongBuffer walkable;
+    /** Sorties de chaque tuile lues dans un fichier .epimap, null pour les calculer*/
+    private ByteBuffer compiledExits;
+    /** Empreinte du contenu ({@link MapFile#contentHash(GameMap)}), 0 si pas encore calculée*/
+    private long contentHash;
+    /** bonus sur la map, indexés par tuile*/
+    private final BonusStore bonuses;
+    /** Indice de la case de départ 'P', -1 si absente*/
+    private int spawnIndex = -1;
+    /** Sorties des tuiles et carrefours, pour le déplacement des ennemis*/
+    private JunctionGraph junctions;
+    /** IA des ennemis compilées pour cette carte, indexées par ordinal de {@link EnemyPolicy}*/
+    private PolicyTable[] policies;
+
+    /**
+     * Compile une carte au format texte.
+     * @param text contenu du fichier map, une ligne de tuiles par ligne de texte
+     * @return la carte compilée
+     */
+    public static GameMap parse(String text) {
+        String[] lines = text.split("\r?\n");
+
+        GameMap map = new GameMap(lines[0].length(), lines.length);
+        for (int y = 0; y < map.height; y++) {
+            int rowLength = Math.min(map.width, lines[y].length());
+            for (int x = 0; x < rowLength; x++) {
+                map.setTile(y * map.width + x, TileType.fromChar(lines[y].charAt(x)));
+            }
+        }
+        map.compileNavigation();
+        return map;
+    }
+
+    /** Remplace la grille et le bitset projetés par des copies modifiables. */
+    private void copyLayers() {
+        ByteBuffer tileCopy = ByteBuffer.allocate(tiles.capacity());
+        tileCopy.put(tiles.duplicate()).clear();
+        LongBuffer walkableCopy = LongBuffer.allocate(walkable.capacity());
+        walkableCopy.put(walkable.duplicate()).clear();
+        tiles = tileCopy;
+        walkable = walkableCopy;
+    }
+
+    /**
+     * Carte vide (toutes les tuiles {@link TileType#VOID}).
+     * @param width largeur en tuiles
+     * @param height hauteur en tuiles
+     */
+    public GameMap(int width, int height) {
+        this(width, height, ByteBuffer.allocate(width * height), LongBuffer.allocate(walkableWords(width * height)));
+    }
+
+    /**
+     * Carte sur des tampons déjà remplis (fichier .epimap), sans bonus ni départ.
+     * @param tiles ids des tuiles, width * height octets
+     * @param walkable bitset des tuiles traversables
+     */
+    GameMap(int width, int height, ByteBuffer tiles, LongBuffer walkable) {
+        this.width = width;
+        this.height = height;
+        this.tiles = tiles;
+        this.walkable = walkable;
+        this.bonuses = new BonusStore(width, height, TILE_SIZE);
+    }
+
+    /** @return nombre de mots du bitset des tuiles traversables */
+    static int walkableWords(int tiles) {
+        return (tiles + 63) >>> 6;
+    }
+
+    /**
+     * Place une tuile (au chargement) et met à jour la traversabilité, les bonus et le départ.
+     * Sur une carte projetée depuis un .epimap (lecture seule), la grille et le bitset sont
+     * d'abord recopiés en mémoire : le fichier n'est jamais modifié.
+     * @param index indice de la tuile
+     * @param id id {@link TileType}
+     */
+    public void setTile(int index, byte id) {
+        if (tiles.isReadOnly() || walkable.isReadOnly()) copyLayers();
+        junctions = null;
+        policies = null;
+        compiledExits = null;
+        contentHash = 0;
+        tiles.put(index, id);
+        long word = walkable.get(index >>> 6);
+        if (TileType.isWalkable(id)) {
+            walkable.put(index >>> 6, word | 1L << index);
+        } else {
+            walkable.put(index >>> 6, word & ~(1L << index));
+        }
+        if (id == TileType.BONUS) {
+            bonuses.add(index);
+        }
+        if (id == TileType.SPAWN && spawnIndex < 0) {
+            spawnIndex = index;
+        }
+    }
+
+    /**
+     * vérifie si la position est traversable.
+     * @param worldX position X
+     * @param worldY position Y
+     * @return true si la tuile est travversable
+     */
+    public boolean isWalkableWorld(float worldX, float worldY) {
+        return isWalkable(tileIndexAtWorld(worldX, worldY));
+    }
+
+    /**
+     * Indice de la tuile dans la grille compilée.
+     * @param col colonne
+     * @param row ligne (0 = haut du fichier map)
+     * @return l'indice, ou -1 si hors de la carte
+     */
+    public int tileIndex(int col, int row) {
+        if (col < 0 || row < 0 || col >= width || row >= height)
+            return -1;
+        return row * width + col;
+    }
+
+    /**
+     * Indice de la tuile qui contient une position du monde.
+     * @param worldX position X
+     * @param worldY position Y
+     * @return l'indice, ou -1 si hors de la carte
+     */
+    public int tileIndexAtWorld(float worldX, float worldY) {
+        int tileX = (int) (worldX / TILE_SIZE);
+        int tileY = height - 1 - (int) (worldY / TILE_SIZE);
+        return tileIndex(tileX, tileY);
+    }
+
+    /**
+     * Vérifie si la tuile d'indice donné est traversable.
+     * @param index indice de tuile, -1 accepté (hors carte)
+     * @return true si la tuile est traversable
+     */
+    public boolean isWalkable(int index) {
+        return index >= 0 && (walkable.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    /**
+     * @return nombre de tuiles traversables, compté sur le bitset
+     */
+    public int getWalkableCount() {
+        int count = 0;
+        for (int w = 0; w < walkable.capacity(); w++) count += Long.bitCount(walkable.get(w));
+        return count;
+    }
+
+    /**
+     * Tuile traversable de rang donné, dans l'ordre des indices : un tirage uniforme parmi les
+     * tuiles traversables, sans boucle d'essais sur toute la carte.
+     * @param rank rang, entre 0 et {@link #getWalkableCount()} exclu
+     * @return indice de la tuile, -1 si le rang dépasse le nombre de tuiles traversables
+     */
+    public int walkableTile(int rank) {
+        for (int w = 0; w < walkable.capacity(); w++) {
+            long word = walkable.get(w);
+            int bits = Long.bitCount(word);
+            if (rank < bits) {
+                for (; rank > 0; rank--) word &= word - 1;
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            rank -= bits;
+        }
+        return -1;
+    }
+
+    /**
+     * @param index indice de tuile, -1 accepté (hors carte)
+     * @return id {@link TileType} de la tuile
+     */
+    public byte getTileId(int index) {
+        return index < 0 ? TileType.VOID : tiles.get(index);
+    }
+
+    /**
+     * @param worldX position X
+     * @param worldY position Y
+     * @return caractère de la tuile à cette position, ' ' si hors carte
+     */
+    public char getTileAt(float worldX, float worldY) {
+        return TileType.toChar(getTileId(tileIndexAtWorld(worldX, worldY)));
+    }
+
+    /**
+     * @param index indice de tuile
+     * @return position X en pixels du coin bas gauche
+     */
+    public int worldX(int index) {
+        return (index % width) * TILE_SIZE;
+    }
+
+    /**
+     * @param index indice de tuile
+     * @return position Y en pixels du coin bas gauche
+     */
+    public int worldY(int index) {
+        return (height - 1 - index / width) * TILE_SIZE;
+    }
+
+    /** @return position X de la case de départ, 0 si absente */
+    public float getSpawnX() {
+        return spawnIndex < 0 ? 0 : worldX(spawnIndex);
+    }
+
+    /** @return position Y de la case de départ, 0 si absente */
+    public float getSpawnY() {
+        return spawnIndex < 0 ? 0 : worldY(spawnIndex);
+    }
+
+    /** @return largeur de la map en tuiles */
+    public int getWidth() {
+        return width;
+    }
+
+    /** @return hauteur de la map en tuiles */
+    public int getHeight() {
+        return height;
+    }
+
+    /** @return largeur de la map en pixels */
+    public int getWorldWidth() {
+        return width * TILE_SIZE;
+    }
+
+    /** @return hauteur de la map en pixels */
+    public int getWorldHeight() {
+        return height * TILE_SIZE;
+    }
+
+    /** @return ids des tuiles, ligne par ligne depuis le haut, en lecture seule */
+    public ByteBuffer getTiles() {
+        return tiles.asReadOnlyBuffer();
+    }
+
+    /** Case de départ lue dans un fichier .epimap. */
+    void setSpawnIndex(int index) {
+        spawnIndex = index;
+    }
+
+    /** @return indice de la case de départ 'P', -1 si absente */
+    public int getSpawnIndex() {
+        return spawnIndex;
+    }
+
+    /** Empreinte lue dans un fichier .epimap. */
+    void setContentHash(long hash) {
+        contentHash = hash;
+    }
+
+    /** @return empreinte du contenu (dimensions et tuiles), lue dans le fichier .epimap ou calculée au premier appel */
+    public long getContentHash() {
+        if (contentHash == 0) contentHash = MapFile.contentHash(this);
+        return contentHash;
+    }
+
+    /** Sorties de chaque tuile lues dans un fichier .epimap, reprises par {@link JunctionGraph}. */
+    void setCompiledExits(ByteBuffer exits) {
+        compiledExits = exits;
+        junctions = null;
+        policies = null;
+    }
+
+    /**
+     * @return sorties des tuiles et carrefours, calculés au chargement
+     * (ou au premier appel après une modification de la carte)
+     */
+    public JunctionGraph getJunctions() {
+        if (junctions == null) compileNavigation();
+        return junctions;
+    }
+
+    /**
+     * @param policy IA d'un ennemi
+     * @return table de décision de cette IA sur cette carte
+     */
+    public PolicyTable getPolicyTable(EnemyPolicy policy) {
+        if (policies == null) compileNavigation();
+        return policies[policy.ordinal()];
+    }
+
+    /**
+     * Calcule le graphe des carrefours puis compile les IA des ennemis.
+     */
+    private void compileNavigation() {
+        junctions = new JunctionGraph(this, compiledExits);
+        EnemyPolicy[] all = EnemyPolicy.values();
+        policies = new PolicyTable[all.length];
+        for (EnemyPolicy policy : all) {
+            policies[policy.ordinal()] = new PolicyTable(junctions, policy);
+        }
+    }
+
+    /** @return bonus de la carte */
+    public BonusStore getBonuses() {
+        return bonuses;
+    }
+}
@@ -0,0 +1,499 @@
+package epi.man.sim;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Recherche de chemin hiérarchique (HPA*) pour les très grandes cartes.
+ *
+ * La carte est découpée en blocs de {@code clusterSize} tuiles de côté. Au chargement :
+ * - les entrées : sur chaque frontière entre deux blocs, chaque passage continu donne une
+ *   paire de tuiles (une de chaque côté), deux s'il est long
+ * - le graphe abstrait : une arête de coût 1 entre les deux tuiles d'une entrée, et une arête
+ *   entre deux entrées d'un même bloc avec la longueur du chemin qui reste dans le bloc
+ *
+ * Une requête relie la tuile de départ et la tuile visée aux entrées de leurs blocs puis
+ * lance un A* sur le graphe abstrait. Seul le premier tronçon est raffiné, avec le champ de
+ * distances vers l'entrée visée dans son bloc ; ce champ est calculé à la première demande
+ * et gardé pour chaque (bloc, entrée). Chaque requête a un budget de nœuds développés :
+ * au-delà, elle abandonne et l'ennemi garde son ordre de priorité jusqu'au carrefour suivant.
+ * Le budget compte des nœuds et non des nanosecondes pour que la simulation reste déterministe.
+ *
+ * Une instance n'est utilisable que par un thread à la fois : {@link #forWorker()} en donne
+ * une copie pour un autre thread, qui partage le graphe et les champs raffinés.
+ */
+public class HierarchicalPathfinder implements NavigationService {
+
+    /** Côté d'un bloc par défaut, en tuiles */
+    public static final int DEFAULT_CLUSTER_SIZE = 16;
+    /** Nombre de nœuds développés par requête par défaut */
+    public static final int DEFAULT_BUDGET = 4096;
+    /** À partir de cette longueur un passage donne deux entrées, une à chaque bout */
+    private static final int LONG_ENTRANCE = 6;
+
+    private final JunctionGraph graph;
+    private final int width, height, clusterSize, clustersX;
+
+    /** Tuile de chaque nœud abstrait */
+    private int[] nodeTile;
+    private int nodeCount;
+    /** Nœuds de chaque bloc : de clusterStart[c] à clusterStart[c + 1] dans clusterNodes */
+    private final int[] clusterStart, clusterNodes;
+    /** Arêtes sortantes de chaque nœud : de edgeStart[n] à edgeStart[n + 1] */
+    private final int[] edgeStart, edgeTo, edgeCost;
+
+    /** Champs raffinés, par nœud : distance et premier pas vers l'entrée dans son bloc, partagés entre les copies */
+    private final AtomicReferenceArray<Refined> refined;
+
+    /** Parcours local, et champ vers la tuile visée de la requête en cours */
+    private final int[] localQueue;
+    private final short[] goalDist;
+    private final byte[] goalDir;
+
+    /** A* : coût, parent et marque de chaque nœud (+ départ et arrivée virtuels), tas ouvert */
+    private final int[] cost, parent, stamp;
+    private int[] heapNode, heapF;
+    private int heapSize, searchStamp;
+
+    private int budget = DEFAULT_BUDGET;
+    /** Requêtes abandonnées, partagé entre les copies */
+    private final AtomicInteger budgetExceeded;
+
+    /**
+     * @param map carte, avec des blocs de {@link #DEFAULT_CLUSTER_SIZE} tuiles
+     */
+    public HierarchicalPathfinder(GameMap map) {
+        this(map, DEFAULT_CLUSTER_SIZE);
+    }
+
+    /**
+     * Découpe la carte et construit le graphe abstrait.
+     * @param map carte
+     * @param clusterSize côté d'un bloc en tuiles (au plus 180, pour des distances locales en short)
+     */
+    public HierarchicalPathfinder(GameMap map, int clusterSize) {
+        if (clusterSize < 2 || clusterSize > 180) throw new IllegalArgumentException("clusterSize : " + clusterSize);
+        this.graph = map.getJunctions();
+        this.width = map.getWidth();
+        this.height = map.getHeight();
+        this.clusterSize = clusterSize;
+        this.clustersX = (width + clusterSize - 1) / clusterSize;
+        int clusters = clustersX * ((height + clusterSize - 1) / clusterSize);
+        int local = clusterSize * clusterSize;
+
+        localQueue = new int[local];
+        goalDist = new short[local];
+        goalDir = new byte[local];
+
+        nodeTile = new int[64];
+
+        // ————— ENTRÉES —————
+        IntTriples edges = new IntTriples();
+        for (int x = clusterSize - 1; x < width - 1; x += clusterSize) {
+            for (int r0 = 0; r0 < height; r0 += clusterSize) {
+                int r1 = Math.min(height, r0 + clusterSize);
+                int run = -1;
+                for (int r = r0; r <= r1; r++) {
+                    boolean open = r < r1 && crossing(r * width + x, Direction.RIGHT);
+                    if (open && run < 0) run = r;
+                    if (!open && run >= 0) {
+                        addEntrances(run, r - 1, edges, true, x, null);
+                        run = -1;
+                    }
+                }
+            }
+        }
+        // une tuile d'entrée d'une frontière verticale peut l'être aussi d'une horizontale, jamais de deux de même sens
+        long[] vertical = sortedNodes();
+        for (int y = clusterSize - 1; y < height - 1; y += clusterSize) {
+            for (int c0 = 0; c0 < width; c0 += clusterSize) {
+                int c1 = Math.min(width, c0 + clusterSize);
+                int run = -1;
+                for (int c = c0; c <= c1; c++) {
+                    boolean open = c < c1 && crossing(y * width + c, Direction.DOWN);
+                    if (open && run < 0) run = c;
+                    if (!open && run >= 0) {
+                        addEntrances(run, c - 1, edges, false, y, vertical);
+                        run = -1;
+                    }
+                }
+            }
+        }
+
+        // ————— NŒUDS PAR BLOC —————
+        clusterStart = new int[clusters + 1];
+        clusterNodes = new int[nodeCount];
+        for (int n = 0; n < nodeCount; n++) clusterStart[cluster(nodeTile[n]) + 1]++;
+        for (int c = 0; c < clusters; c++) clusterStart[c + 1] += clusterStart[c];
+        int[] cursor = Arrays.copyOf(clusterStart, clusters);
+        for (int n = 0; n < nodeCount; n++) clusterNodes[cursor[cluster(nodeTile[n])]++] = n;
+
+        // ————— ARÊTES DANS LES BLOCS —————
+        short[] dist = new short[local];
+        byte[] dir = new byte[local];
+        for (int c = 0; c < clusters; c++) {
+            for (int i = clusterStart[c]; i < clusterStart[c + 1]; i++) {
+                int u = clusterNodes[i];
+                localField(nodeTile[u], dist, dir);
+                for (int k = clusterStart[c]; k < clusterStart[c + 1]; k++) {
+                    int v = clusterNodes[k];
+                    short d = dist[local(nodeTile[v])];
+                    if (v != u && d != FlowField.UNREACHABLE) edges.add(v, u, d);
+                }
+            }
+        }
+
+        // ————— ARÊTES EN TABLEAUX COMPACTS —————
+        edgeStart = new int[nodeCount + 1];
+        edgeTo = new int[edges.size];
+        edgeCost = new int[edges.size];
+        for (int e = 0; e < edges.size; e++) edgeStart[edges.a[e] + 1]++;
+        for (int n = 0; n < nodeCount; n++) edgeStart[n + 1] += edgeStart[n];
+        cursor = Arrays.copyOf(edgeStart, nodeCount);
+        for (int e = 0; e < edges.size; e++) {
+            int slot = cursor[edges.a[e]]++;
+            edgeTo[slot] = edges.b[e];
+            edgeCost[slot] = edges.c[e];
+        }
+
+        refined = new AtomicReferenceArray<>(nodeCount);
+        budgetExceeded = new AtomicInteger();
+        cost = new int[nodeCount + 2];
+        parent = new int[nodeCount + 2];
+        stamp = new int[nodeCount + 2];
+        heapNode = new int[edges.size + nodeCount + 16];
+        heapF = new int[heapNode.length];
+    }
+
+    /**
+     * Copie pour un autre thread : le graphe abstrait et les champs raffinés sont partagés,
+     * seuls les tableaux de travail d'une requête sont propres à la copie.
+     */
+    private HierarchicalPathfinder(HierarchicalPathfinder shared) {
+        this.graph = shared.graph;
+        this.width = shared.width;
+        this.height = shared.height;
+        this.clusterSize = shared.clusterSize;
+        this.clustersX = shared.clustersX;
+        this.nodeTile = shared.nodeTile;
+        this.nodeCount = shared.nodeCount;
+        this.clusterStart = shared.clusterStart;
+        this.clusterNodes = shared.clusterNodes;
+        this.edgeStart = shared.edgeStart;
+        this.edgeTo = shared.edgeTo;
+        this.edgeCost = shared.edgeCost;
+        this.refined = shared.refined;
+        this.budget = shared.budget;
+        this.budgetExceeded = shared.budgetExceeded;
+
+        int local = clusterSize * clusterSize;
+        localQueue = new int[local];
+        goalDist = new short[local];
+        goalDir = new byte[local];
+        cost = new int[nodeCount + 2];
+        parent = new int[nodeCount + 2];
+        stamp = new int[nodeCount + 2];
+        heapNode = new int[shared.heapNode.length];
+        heapF = new int[heapNode.length];
+    }
+
+    /**
+     * Le budget de requête est celui de cette instance au moment de la copie.
+     */
+    @Override
+    public NavigationService forWorker() {
+        return new HierarchicalPathfinder(this);
+    }
+
+    /** Passage dans les deux sens entre une tuile et sa voisine. */
+    private boolean crossing(int tile, Direction d) {
+        int n = graph.neighbour(tile, d);
+        return n >= 0 && (graph.exits(tile) & d.bit()) != 0 && (graph.exits(n) & d.opposite().bit()) != 0;
+    }
+
+    /**
+     * Ajoute les entrées d'un passage continu, au milieu ou aux deux bouts s'il est long.
+     * @param vertical frontière verticale (colonnes line et line + 1), sinon horizontale
+     * @param existing nœuds déjà créés triés par tuile ({@link #sortedNodes()}), null si aucun
+     */
+    private void addEntrances(int from, int to, IntTriples edges, boolean vertical, int line, long[] existing) {
+        if (to - from + 1 >= LONG_ENTRANCE) {
+            addEntrance(from, edges, vertical, line, existing);
+            addEntrance(to, edges, vertical, line, existing);
+        } else {
+            addEntrance((from + to) / 2, edges, vertical, line, existing);
+        }
+    }
+
+    private void addEntrance(int along, IntTriples edges, boolean vertical, int line, long[] existing) {
+        int a = vertical ? along * width + line : line * width + along;
+        int b = vertical ? a + 1 : a + width;
+        int na = node(a, existing), nb = node(b, existing);
+        edges.add(na, nb, 1);
+        edges.add(nb, na, 1);
+    }
+
+    /**
+     * @param existing nœuds déjà créés triés par tuile, null si aucun
+     * @return nœud de la tuile, créé s'il n'existe pas
+     */
+    private int node(int tile, long[] existing) {
+        if (existing != null) {
+            int i = Arrays.binarySearch(existing, (long) tile << 32);
+            if (i < 0) i = -i - 1;
+            if (i < existing.length && (int) (existing[i] >>> 32) == tile) return (int) existing[i];
+        }
+        if (nodeCount == nodeTile.length) nodeTile = Arrays.copyOf(nodeTile, nodeCount * 2);
+        nodeTile[nodeCount] = tile;
+        return nodeCount++;
+    }
+
+    /**
+     * @return nœuds créés jusqu'ici, {@code tuile << 32 | nœud}, triés par tuile
+     */
+    private long[] sortedNodes() {
+        long[] sorted = new long[nodeCount];
+        for (int n = 0; n < nodeCount; n++) sorted[n] = (long) nodeTile[n] << 32 | n;
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    @Override
+    public Direction nextStep(int fromTile, int toTile) {
+        if (fromTile < 0 || toTile < 0 || fromTile == toTile) return null;
+        if (graph.exits(fromTile) == 0) return null;
+
+        // connexion de la tuile visée aux entrées de son bloc (et chemin direct dans le bloc)
+        localField(toTile, goalDist, goalDir);
+        int startCluster = cluster(fromTile), goalCluster = cluster(toTile);
+        if (startCluster == goalCluster) {
+            byte d = goalDir[local(fromTile)];
+            if (d >= 0) return Direction.ALL[d];
+        }
+        return abstractStep(fromTile, toTile, startCluster, goalCluster);
+    }
+
+    /**
+     * A* sur le graphe abstrait entre un nœud de départ virtuel (relié aux entrées du bloc
+     * de départ) et un nœud d'arrivée virtuel (relié aux entrées du bloc visé), puis
+     * raffinement du premier tronçon.
+     */
+    private Direction abstractStep(int fromTile, int toTile, int startCluster, int goalCluster) {
+        final int start = nodeCount, goal = nodeCount + 1;
+        int s = ++searchStamp;
+        heapSize = 0;
+        int fromLocal = local(fromTile);
+
+        cost[start] = 0;
+        parent[start] = -1;
+        stamp[start] = s;
+        push(start, heuristic(fromTile, toTile));
+
+        int expanded = 0;
+        boolean found = false;
+        while (heapSize > 0) {
+            int f = heapF[0];
+            int u = pop();
+            if (f != cost[u] + (u >= nodeCount ? (u == start ? heuristic(fromTile, toTile) : 0) : heuristic(nodeTile[u], toTile)))
+                continue; // entrée périmée du tas
+            if (u == goal) {
+                found = true;
+                break;
+            }
+            if (++expanded > budget) {
+                budgetExceeded.incrementAndGet();
+                return null;
+            }
+
+            if (u == start) {
+                for (int i = clusterStart[startCluster]; i < clusterStart[startCluster + 1]; i++) {
+                    int n = clusterNodes[i];
+                    short d = refined(n).dist[fromLocal];
+                    if (d != FlowField.UNREACHABLE) relax(n, d, u, s, toTile);
+                }
+                continue;
+            }
+
+            int g = cost[u];
+            for (int e = edgeStart[u]; e < edgeStart[u + 1]; e++) relax(edgeTo[e], g + edgeCost[e], u, s, toTile);
+            if (cluster(nodeTile[u]) == goalCluster) {
+                short d = goalDist[local(nodeTile[u])];
+                if (d != FlowField.UNREACHABLE) relax(goal, g + d, u, s, toTile);
+            }
+        }
+        if (!found) return null;
+
+        // premier nœud après le départ, et le suivant
+        int first = goal, second = -1;
+        while (parent[first] != start) {
+            second = first;
+            first = parent[first];
+        }
+
+        int target = first;
+        if (nodeTile[first] == fromTile) {
+            // déjà sur l'entrée : on vise le nœud suivant
+            if (second < 0 || second == goal) return null;
+            target = second;
+            if (cluster(nodeTile[target]) != startCluster) return adjacentDirection(fromTile, nodeTile[target]);
+        }
+        byte d = refined(target).dir[fromLocal];
+        return d < 0 ? null : Direction.ALL[d];
+    }
+
+    private void relax(int v, int c, int from, int s, int toTile) {
+        if (stamp[v] == s && c >= cost[v]) return;
+        stamp[v] = s;
+        cost[v] = c;
+        parent[v] = from;
+        push(v, c + (v >= nodeCount ? 0 : heuristic(nodeTile[v], toTile)));
+    }
+
+    /** Distance de Manhattan en tuiles. */
+    private int heuristic(int a, int b) {
+        return Math.abs(a % width - b % width) + Math.abs(a / width - b / width);
+    }
+
+    private Direction adjacentDirection(int from, int to) {
+        for (Direction d : Direction.ALL) if (graph.neighbour(from, d) == to) return d;
+        return null;
+    }
+
+    /**
+     * Champ de distances et de premiers pas vers une entrée dans son bloc, calculé à la première
+     * demande. Deux copies peuvent le calculer en même temps : le résultat est le même, un seul est gardé.
+     */
+    private Refined refined(int node) {
+        Refined field = refined.get(node);
+        if (field == null) {
+            int local = clusterSize * clusterSize;
+            field = new Refined(new short[local], new byte[local]);
+            localField(nodeTile[node], field.dist, field.dir);
+            if (!refined.compareAndSet(node, null, field)) field = refined.get(node);
+        }
+        return field;
+    }
+
+    /**
+     * Parcours en largeur inversé depuis une tuile, limité à son bloc :
+     * distance et premier pas de chaque tuile du bloc vers elle.
+     */
+    private void localField(int source, short[] dist, byte[] dir) {
+        Arrays.fill(dist, FlowField.UNREACHABLE);
+        Arrays.fill(dir, (byte) -1);
+        int c = cluster(source);
+        int head = 0, tail = 0;
+        localQueue[tail++] = source;
+        dist[local(source)] = 0;
+        while (head < tail) {
+            int tile = localQueue[head++];
+            short next = (short) (dist[local(tile)] + 1);
+            for (Direction d : Direction.ALL) {
+                int n = graph.neighbour(tile, d);
+                if (n < 0 || cluster(n) != c) continue;
+                int ln = local(n);
+                if (dist[ln] != FlowField.UNREACHABLE) continue;
+                Direction back = d.opposite();
+                if ((graph.exits(n) & back.bit()) == 0) continue;
+                dist[ln] = next;
+                dir[ln] = (byte) back.ordinal();
+                localQueue[tail++] = n;
+            }
+        }
+    }
+
+    private int cluster(int tile) {
+        return (tile / width / clusterSize) * clustersX + (tile % width) / clusterSize;
+    }
+
+    /** Indice d'une tuile dans son bloc. */
+    private int local(int tile) {
+        return (tile / width % clusterSize) * clusterSize + tile % width % clusterSize;
+    }
+
+    private void push(int node, int f) {
+        if (heapSize == heapNode.length) {
+            heapNode = Arrays.copyOf(heapNode, heapSize * 2);
+            heapF = Arrays.copyOf(heapF, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int p = (i - 1) >>> 1;
+            if (heapF[p] <= f) break;
+            heapNode[i] = heapNode[p];
+            heapF[i] = heapF[p];
+            i = p;
+        }
+        heapNode[i] = node;
+        heapF[i] = f;
+    }
+
+    private int pop() {
+        int top = heapNode[0];
+        int node = heapNode[--heapSize], f = heapF[heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && heapF[child + 1] < heapF[child]) child++;
+            if (heapF[child] >= f) break;
+            heapNode[i] = heapNode[child];
+            heapF[i] = heapF[child];
+            i = child;
+        }
+        heapNode[i] = node;
+        heapF[i] = f;
+        return top;
+    }
+
+    /**
+     * @param budget nombre maximal de nœuds développés par requête
+     */
+    public void setBudget(int budget) {
+        this.budget = budget;
+    }
+
+    /** @return nombre de requêtes abandonnées faute de budget */
+    public int getBudgetExceeded() {
+        return budgetExceeded.get();
+    }
+
+    /** @return nombre d'entrées (nœuds du graphe abstrait) */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Champ raffiné d'une entrée : distance et premier pas de chaque tuile de son bloc.
+     */
+    private static final class Refined {
+        final short[] dist;
+        final byte[] dir;
+
+        Refined(short[] dist, byte[] dir) {
+            this.dist = dist;
+            this.dir = dir;
+        }
+    }
+
+    /**
+     * Liste de triplets d'entiers (arêtes pendant la construction).
+     */
+    private static final class IntTriples {
+        int[] a = new int[256], b = new int[256], c = new int[256];
+        int size;
+
+        void add(int x, int y, int z) {
+            if (size == a.length) {
+                a = Arrays.copyOf(a, size * 2);
+                b = Arrays.copyOf(b, size * 2);
+                c = Arrays.copyOf(c, size * 2);
+            }
+            a[size] = x;
+            b[size] = y;
+            c[size] = z;
+            size++;
+        }
+    }
+}
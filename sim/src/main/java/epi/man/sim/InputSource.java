@@ -0,0 +1,13 @@
+package epi.man.sim;
+
+/**
+ * Source des commandes du joueur.
+ * Le jeu la branche sur le clavier, une simulation sans fenêtre sur un script ou une IA.
+ */
+public interface InputSource {
+
+    /**
+     * @return direction demandée par le joueur, null si aucune
+     */
+    Direction direction();
+}
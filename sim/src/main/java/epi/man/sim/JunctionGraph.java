@@ -0,0 +1,202 @@
+package epi.man.sim;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Graphe de déplacement des ennemis, précalculé au chargement de la carte.
+ * - un masque de 4 bits par tuile : les sorties vers une tuile voisine traversable
+ *   (bit {@link Direction#bit()}) ; les portes '-' ne comptent pas, on n'y revient pas.
+ *   Sur une carte compilée c'est la section du fichier .epimap projeté, sinon un tableau
+ *   calculé au chargement
+ * - les carrefours : tuiles où il faut choisir (plus ou moins de 2 sorties, ou un virage)
+ * - jusqu'à {@link #CORRIDOR_TABLE_MAX_TILES} tuiles, pour chaque carrefour et chaque sortie,
+ *   le couloir droit qui le relie au carrefour suivant et sa longueur en tuiles ; au-delà,
+ *   le couloir est parcouru à la demande, sans rien garder par tuile que le masque
+ *
+ * Entre deux carrefours un couloir est toujours droit : un ennemi qui s'y engage
+ * sait où il s'arrête sans relire la carte.
+ */
+public class JunctionGraph {
+
+    /** Au-delà de ce nombre de tuiles, les couloirs ne sont pas précalculés*/
+    public static final int CORRIDOR_TABLE_MAX_TILES = 256 * 256;
+
+    private final GameMap map;
+    private final int width, height;
+    /** Sorties de chaque tuile*/
+    private final ByteBuffer exits;
+    /** Numéro de carrefour de chaque tuile, -1 dans un couloir ; null sans table des couloirs*/
+    private final int[] junctionOf;
+    /** Tuile d'arrivée de chaque couloir (carrefour * 4 + direction), -1 si pas de sortie*/
+    private final int[] edgeTarget;
+    /** Longueur de chaque couloir, en tuiles*/
+    private final int[] edgeLength;
+    private final int junctionCount;
+
+    /**
+     * Calcule les masques, les carrefours et les couloirs.
+     * @param map carte compilée
+     */
+    public JunctionGraph(GameMap map) {
+        this(map, null);
+    }
+
+    /**
+     * Calcule les carrefours et, si la carte n'est pas trop grande, les couloirs.
+     * @param map carte compilée
+     * @param compiledExits sorties de chaque tuile déjà calculées (fichier .epimap), null pour les calculer
+     */
+    public JunctionGraph(GameMap map, ByteBuffer compiledExits) {
+        this.map = map;
+        width = map.getWidth();
+        height = map.getHeight();
+        int tiles = width * height;
+
+        if (compiledExits != null) {
+            exits = compiledExits.duplicate();
+        } else {
+            exits = ByteBuffer.allocate(tiles);
+            for (int i = 0; i < tiles; i++) exits.put(i, (byte) exitMask(map, i));
+        }
+
+        if (tiles > CORRIDOR_TABLE_MAX_TILES) {
+            int count = 0;
+            for (int i = 0; i < tiles; i++) {
+                if (isJunction(i)) count++;
+            }
+            junctionCount = count;
+            junctionOf = edgeTarget = edgeLength = null;
+            return;
+        }
+
+        junctionOf = new int[tiles];
+        int count = 0;
+        for (int i = 0; i < tiles; i++) {
+            junctionOf[i] = isJunction(i) ? count++ : -1;
+        }
+        junctionCount = count;
+
+        edgeTarget = new int[count * 4];
+        edgeLength = new int[count * 4];
+        for (int i = 0; i < tiles; i++) {
+            int j = junctionOf[i];
+            if (j < 0) continue;
+            for (Direction d : Direction.ALL) {
+                int edge = j * 4 + d.ordinal();
+                if ((exits(i) & d.bit()) == 0) {
+                    edgeTarget[edge] = -1;
+                    continue;
+                }
+                edgeTarget[edge] = walk(i, d);
+                edgeLength[edge] = walkLength(i, d);
+            }
+        }
+    }
+
+    /**
+     * @return masque des sorties d'une tuile : voisines traversables, sauf les portes
+     */
+    private int exitMask(GameMap map, int i) {
+        if (!map.isWalkable(i)) return 0;
+        int mask = 0;
+        for (Direction d : Direction.ALL) {
+            int n = neighbour(i, d);
+            if (map.isWalkable(n) && map.getTileId(n) != TileType.DOOR) mask |= d.bit();
+        }
+        return mask;
+    }
+
+    /**
+     * Couloir droit : exactement deux sorties opposées.
+     */
+    private static boolean isCorridor(int mask) {
+        return mask == (Direction.UP.bit() | Direction.DOWN.bit())
+            || mask == (Direction.LEFT.bit() | Direction.RIGHT.bit());
+    }
+
+    /**
+     * @param index indice de tuile
+     * @param d direction
+     * @return indice de la tuile voisine, -1 hors carte
+     */
+    public int neighbour(int index, Direction d) {
+        int col = index % width + d.dx;
+        int row = index / width - d.dy; // les lignes sont comptées depuis le haut
+        if (col < 0 || row < 0 || col >= width || row >= height) return -1;
+        return row * width + col;
+    }
+
+    /**
+     * @param index indice de tuile
+     * @return masque des sorties (bits {@link Direction#bit()}), 0 pour un mur
+     */
+    public int exits(int index) {
+        return index < 0 ? 0 : exits.get(index);
+    }
+
+    /**
+     * @param index indice de tuile
+     * @return true si un ennemi doit choisir sa direction sur cette tuile
+     */
+    public boolean isJunction(int index) {
+        return map.isWalkable(index) && !isCorridor(exits.get(index));
+    }
+
+    /**
+     * Carrefour atteint en partant d'une tuile dans une direction.
+     * Depuis un carrefour c'est une lecture de la table des couloirs ; depuis une tuile de
+     * couloir (apparition, sortie de l'enclos) ou sans table, le couloir est parcouru.
+     * @param index tuile de départ
+     * @param d direction, doit être une sortie de la tuile
+     * @return tuile du carrefour d'arrivée
+     */
+    public int target(int index, Direction d) {
+        if (junctionOf != null) {
+            int j = junctionOf[index];
+            if (j >= 0) return edgeTarget[j * 4 + d.ordinal()];
+        }
+        return walk(index, d);
+    }
+
+    /**
+     * @param index tuile de départ
+     * @param d direction, doit être une sortie de la tuile
+     * @return nombre de tuiles jusqu'au carrefour d'arrivée
+     */
+    public int length(int index, Direction d) {
+        if (junctionOf != null) {
+            int j = junctionOf[index];
+            if (j >= 0) return edgeLength[j * 4 + d.ordinal()];
+        }
+        return walkLength(index, d);
+    }
+
+    /**
+     * Parcourt le couloir en ligne droite jusqu'à la première tuile qui n'est pas un couloir.
+     * @return tuile du carrefour d'arrivée
+     */
+    private int walk(int index, Direction d) {
+        int step = d.dx - d.dy * width; // les lignes sont comptées depuis le haut
+        int tile = index + step;
+        while (isCorridor(exits.get(tile))) tile += step;
+        return tile;
+    }
+
+    /**
+     * @return nombre de tuiles jusqu'au carrefour d'arrivée
+     */
+    private int walkLength(int index, Direction d) {
+        int step = d.dx - d.dy * width;
+        int tile = index + step, length = 1;
+        while (isCorridor(exits.get(tile))) {
+            tile += step;
+            length++;
+        }
+        return length;
+    }
+
+    /** @return nombre de carrefours */
+    public int getJunctionCount() {
+        return junctionCount;
+    }
+}
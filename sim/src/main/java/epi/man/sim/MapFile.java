@@ -0,0 +1,201 @@
+package epi.man.sim;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Format binaire des cartes compilées (.epimap), produit à la compilation du jeu
+ * par la tâche gradle {@code sim:compileMaps} depuis les fichiers texte.
+ *
+ * Le fichier est projeté en mémoire (mmap) : la grille des tuiles et le bitset des tuiles
+ * traversables sont lus sur place, sans copie ni analyse du texte. Seuls le bitset des bonus
+ * (qui change pendant la partie) et les sorties des tuiles (reprises par le {@link JunctionGraph})
+ * sont recopiés, d'un bloc.
+ *
+ * Contenu, en big-endian :
+ * - en-tête : magic "EPIM", version, largeur, hauteur, case de départ (-1 si absente),
+ *   nombre de bonus, empreinte du contenu (FNV-1a 64 bits des dimensions et des tuiles)
+ * - ids des tuiles, un octet par tuile, ligne par ligne depuis le haut
+ * - bitset des tuiles traversables, en longs
+ * - sorties de chaque tuile, un octet par tuile ({@link JunctionGraph#exits(int)})
+ * - bitset des tuiles à bonus, en longs
+ * Les sections d'octets sont complétées à un multiple de 8 octets.
+ */
+public final class MapFile {
+
+    /** Extension des cartes compilées */
+    public static final String EXTENSION = ".epimap";
+
+    /** "EPIM" : en-tête des cartes compilées */
+    private static final int MAGIC = 0x4550494D;
+    private static final int VERSION = 1;
+    /** magic, version, largeur, hauteur, départ, nombre de bonus, empreinte */
+    private static final int HEADER_BYTES = 4 * 6 + 8;
+
+    private MapFile() {}
+
+    /**
+     * @param textPath chemin d'une carte texte, ex: "map/map.txt"
+     * @return chemin de la carte compilée correspondante, ex: "map/map.epimap"
+     */
+    public static String compiledName(String textPath) {
+        int dot = textPath.lastIndexOf('.');
+        int slash = textPath.lastIndexOf('/');
+        return (dot > slash ? textPath.substring(0, dot) : textPath) + EXTENSION;
+    }
+
+    /**
+     * Projette une carte compilée en mémoire.
+     * @param file fichier .epimap
+     * @return la carte, dont la grille reste dans le fichier projeté
+     * @throws IOException si le fichier est illisible ou n'est pas une carte compilée
+     */
+    public static GameMap map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Lit une carte compilée déjà en mémoire (ressource du jar, par exemple), sans la copier.
+     * @param buffer contenu du fichier .epimap
+     * @return la carte
+     * @throws IOException si le contenu n'est pas une carte compilée
+     */
+    public static GameMap read(ByteBuffer buffer) throws IOException {
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+            throw new IOException("en-tête inattendu, carte non compilée ou d'une autre version");
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+        int spawn = buffer.getInt();
+        int bonusCount = buffer.getInt();
+        long hash = buffer.getLong();
+
+        int tiles = width * height;
+        int words = GameMap.walkableWords(tiles);
+        if (width <= 0 || height <= 0 || buffer.remaining() != 2L * padded(tiles) + 2L * words * 8)
+            throw new IOException("taille inattendue pour une carte de " + width + " x " + height);
+
+        ByteBuffer tileLayer = section(buffer, tiles);
+        ByteBuffer walkable = section(buffer, words * 8);
+        ByteBuffer exits = section(buffer, tiles);
+        ByteBuffer bonusBits = section(buffer, words * 8);
+
+        GameMap map = new GameMap(width, height, tileLayer, walkable.asLongBuffer());
+        map.setSpawnIndex(spawn);
+        map.setContentHash(hash);
+        map.setCompiledExits(exits);
+        map.getBonuses().load(bonusBits.asLongBuffer());
+        if (map.getBonuses().getTotal() != bonusCount)
+            throw new IOException("nombre de bonus inattendu : " + map.getBonuses().getTotal() + " au lieu de " + bonusCount);
+        return map;
+    }
+
+    /** Vue sur les n octets suivants du tampon (big-endian), qui avance après eux et leur complément à 8. */
+    private static ByteBuffer section(ByteBuffer buffer, int n) {
+        ByteBuffer slice = buffer.slice();
+        slice.limit(n);
+        buffer.position(buffer.position() + padded(n));
+        return slice;
+    }
+
+    /** @return n arrondi au multiple de 8 supérieur */
+    private static int padded(int n) {
+        return (n + 7) & ~7;
+    }
+
+    /**
+     * Écrit une carte compilée dans un fichier temporaire renommé à la fin.
+     * @param map carte
+     * @param file fichier .epimap
+     * @throws IOException si l'écriture échoue
+     */
+    public static void write(GameMap map, Path file) throws IOException {
+        int tiles = map.getWidth() * map.getHeight();
+        int words = GameMap.walkableWords(tiles);
+        BonusStore bonuses = map.getBonuses();
+        JunctionGraph graph = map.getJunctions();
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 2 * padded(tiles) + 2 * words * 8)
+            .order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(map.getWidth()).putInt(map.getHeight())
+            .putInt(map.getSpawnIndex()).putInt(bonuses.getTotal()).putLong(contentHash(map));
+        for (int i = 0; i < tiles; i++) buffer.put(map.getTileId(i));
+        buffer.position(buffer.position() + padded(tiles) - tiles);
+        for (int w = 0; w < words; w++) {
+            long word = 0;
+            for (int b = 0; b < 64 && (w << 6) + b < tiles; b++) {
+                if (map.isWalkable((w << 6) + b)) word |= 1L << b;
+            }
+            buffer.putLong(word);
+        }
+        for (int i = 0; i < tiles; i++) buffer.put((byte) graph.exits(i));
+        buffer.position(buffer.position() + padded(tiles) - tiles);
+        for (int w = 0; w < words; w++) {
+            long word = 0;
+            for (int b = 0; b < 64 && (w << 6) + b < tiles; b++) {
+                if (bonuses.contains((w << 6) + b)) word |= 1L << b;
+            }
+            buffer.putLong(word);
+        }
+        buffer.rewind();
+
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, "epimap", ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Empreinte du contenu de la carte (FNV-1a 64 bits) : dimensions et id de chaque tuile.
+     * @param map carte
+     * @return l'empreinte
+     */
+    public static long contentHash(GameMap map) {
+        long h = 0xcbf29ce484222325L;
+        h = (h ^ map.getWidth()) * 0x100000001b3L;
+        h = (h ^ map.getHeight()) * 0x100000001b3L;
+        int tiles = map.getWidth() * map.getHeight();
+        for (int i = 0; i < tiles; i++) h = (h ^ map.getTileId(i)) * 0x100000001b3L;
+        return h;
+    }
+
+    /**
+     * Compile les cartes texte en .epimap, à côté du texte.
+     * Lancé par la tâche gradle {@code sim:compileMaps}.
+     * @param args fichiers des cartes, ou dossiers dont toutes les cartes *.txt sont compilées
+     * @throws IOException si une carte ne peut pas être lue ou écrite
+     */
+    public static void main(String[] args) throws IOException {
+        for (String arg : args) {
+            Path path = Paths.get(arg);
+            if (!Files.isDirectory(path)) {
+                compile(path);
+                continue;
+            }
+            try (DirectoryStream<Path> maps = Files.newDirectoryStream(path, "*.txt")) {
+                for (Path text : maps) compile(text);
+            }
+        }
+    }
+
+    private static void compile(Path text) throws IOException {
+        GameMap map = GameMap.parse(new String(Files.readAllBytes(text), StandardCharsets.UTF_8));
+        Path out = text.resolveSibling(compiledName(text.getFileName().toString()));
+        write(map, out);
+        System.out.println(text + " -> " + out + " (" + map.getWidth() + " x " + map.getHeight() + ")");
+    }
+}
@@ -0,0 +1,61 @@
+package epi.man.sim;
+
+/**
+ * Mesures d'une frame enregistrées par le {@link FrameProfiler} :
+ * des durées de phase (en nanosecondes) et des compteurs de rendu.
+ */
+public enum Metric {
+
+    /** Commandes lues et déplacement du joueur, sur tous les pas de la frame */
+    PLAYER("Joueur", true),
+    /** Champ de poursuite et tuiles visées par les ennemis */
+    NAVIGATION("Navigation", true),
+    /** Déplacement et choix de direction des ennemis */
+    ENEMIES("IA ennemis", true),
+    /** Contacts joueur / ennemis et joueur / bonus */
+    COLLISION("Collisions", true),
+    /** Tous les pas de simulation de la frame */
+    SIMULATION("Simulation", true),
+    /** Animations de l'étudiante et des ennemis */
+    ANIMATION("Animations", true),
+    /** Fond et mobilier (couche statique) */
+    STATIC_LAYER("Decor", true),
+    /** Bonus restants */
+    BOARD("Bonus", true),
+    /** Ennemis et étudiante */
+    ENTITIES("Entites", true),
+    /** Score, vies, victoire */
+    HUD("HUD", true),
+    /** Frame complète */
+    FRAME("Frame", true),
+
+    /** Envois de sommets du SpriteBatch */
+    RENDER_CALLS("Render calls", false),
+    /** Plus grand nombre de sprites dans un envoi */
+    MAX_SPRITES("Max sprites/batch", false),
+    /** Changements de texture (GLProfiler) */
+    TEXTURE_BINDINGS("Texture binds", false),
+    /** Appels de dessin OpenGL (GLProfiler) */
+    DRAW_CALLS("Draw calls", false),
+    /** Appels OpenGL (GLProfiler) */
+    GL_CALLS("GL calls", false),
+    /** Ennemis mis à jour à chaque pas ({@link ActivityScheduler.Band#NEAR}) */
+    ENEMIES_NEAR("Ennemis proches", false),
+    /** Ennemis mis à jour moins souvent ({@link ActivityScheduler.Band#FAR}) */
+    ENEMIES_FAR("Ennemis lointains", false),
+    /** Ennemis endormis ({@link ActivityScheduler.Band#ASLEEP}) */
+    ENEMIES_ASLEEP("Ennemis endormis", false);
+
+    /** Toutes les mesures, dans l'ordre des ordinaux (copie unique de values()) */
+    public static final Metric[] ALL = values();
+
+    /** Nom affiché */
+    public final String label;
+    /** true pour une durée en nanosecondes, false pour un compteur */
+    public final boolean timing;
+
+    Metric(String label, boolean timing) {
+        this.label = label;
+        this.timing = timing;
+    }
+}
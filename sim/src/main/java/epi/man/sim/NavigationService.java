@@ -0,0 +1,25 @@
+package epi.man.sim;
+
+/**
+ * Service de navigation des ennemis : premier pas d'un chemin vers une tuile quelconque.
+ */
+public interface NavigationService {
+
+    /**
+     * @param fromTile tuile de départ (celle de l'ennemi)
+     * @param toTile tuile visée
+     * @return direction du premier pas, null si la tuile visée est atteinte, inaccessible
+     * ou si le chemin n'est pas (encore) connu
+     */
+    Direction nextStep(int fromTile, int toTile);
+
+    /**
+     * Service à utiliser depuis un autre thread, en même temps que celui-ci
+     * (décisions parallèles des ennemis, {@link ParallelDecisions}).
+     * @return ce service s'il ne garde aucun état de requête, sinon une copie qui partage
+     * les données de la carte avec lui
+     */
+    default NavigationService forWorker() {
+        return this;
+    }
+}
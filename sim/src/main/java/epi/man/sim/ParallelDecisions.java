@@ -0,0 +1,152 @@
+package epi.man.sim;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Phase de décision des ennemis sur un {@link ForkJoinPool}.
+ *
+ * Les ennemis arrêtés sur un carrefour pendant le pas sont découpés en lots contigus, un lot
+ * par tâche. Chaque tâche choisit les directions de son lot ({@link EnemyAiSystem#choose})
+ * avec sa propre copie de la navigation ({@link NavigationService#forWorker()}), et les range
+ * dans un tableau indexé par ennemi : rien d'autre n'est écrit. Les directions sont ensuite
+ * appliquées par {@link EnemyMovementSystem}, sur le thread de la simulation et dans l'ordre
+ * des ennemis, donc le résultat ne dépend pas du nombre de threads.
+ *
+ * Les tâches sont créées une fois et relancées à chaque pas (aucune allocation). Le thread
+ * appelant traite le premier lot lui-même puis attend les autres sur un compteur
+ * ({@link LockSupport#park}) : attendre une tâche du pool depuis un thread extérieur
+ * ({@code ForkJoinPool.invoke}, {@code join}) alloue un nœud d'attente à chaque blocage.
+ */
+public class ParallelDecisions {
+
+    /** En dessous de ce nombre d'ennemis à décider, la phase reste sur le thread appelant */
+    public static final int MIN_PARALLEL = 64;
+    /** Lots par thread, pour équilibrer les lots plus lents (requêtes de navigation longues) */
+    private static final int BATCHES_PER_THREAD = 4;
+
+    private final ForkJoinPool pool;
+    private final EnemyAiSystem ai;
+    /** Navigation du thread appelant, pour les petites phases */
+    private final NavigationService navigation;
+    private final Batch[] batches;
+    /** Lots confiés au pool et pas encore terminés */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /** Phase en cours */
+    private EnemyStore store;
+    private int[] waiting;
+    private int count;
+    private byte[] decided;
+    /** Thread qui attend la fin des lots */
+    private volatile Thread caller;
+    /** Erreur d'un lot, relancée sur le thread appelant */
+    private volatile Throwable failure;
+
+    /**
+     * @param pool threads de calcul, partagés avec d'autres parties si besoin
+     * @param ai choix de direction
+     */
+    ParallelDecisions(ForkJoinPool pool, EnemyAiSystem ai) {
+        this.pool = pool;
+        this.ai = ai;
+        this.navigation = ai.getNavigation();
+        this.batches = new Batch[Math.max(1, pool.getParallelism() * BATCHES_PER_THREAD)];
+        for (int b = 0; b < batches.length; b++) {
+            batches[b] = new Batch(b, navigation == null ? null : navigation.forWorker());
+        }
+    }
+
+    /**
+     * Choisit la direction de chaque ennemi en attente.
+     * @param e ennemis
+     * @param waiting indices des ennemis arrêtés sur un carrefour
+     * @param count nombre d'indices dans {@code waiting}
+     * @param decided reçoit l'ordinal de la direction de chaque ennemi, -1 si aucune
+     */
+    void decide(EnemyStore e, int[] waiting, int count, byte[] decided) {
+        if (count < MIN_PARALLEL) {
+            for (int k = 0; k < count; k++) choose(e, waiting[k], navigation, decided);
+            return;
+        }
+        this.store = e;
+        this.waiting = waiting;
+        this.count = count;
+        this.decided = decided;
+        this.caller = Thread.currentThread();
+        this.failure = null;
+
+        pending.set(batches.length - 1);
+        for (int b = 1; b < batches.length; b++) pool.execute(batches[b]);
+        try {
+            batches[0].run();
+        } finally {
+            /** les lots du pool écrivent encore dans les tableaux de la phase : on les attend dans tous les cas*/
+            while (pending.get() > 0) LockSupport.park(this);
+            this.store = null;
+            this.caller = null;
+        }
+        Throwable error = failure;
+        if (error instanceof RuntimeException) throw (RuntimeException) error;
+        if (error instanceof Error) throw (Error) error;
+    }
+
+    private void choose(EnemyStore e, int i, NavigationService nav, byte[] decided) {
+        Direction d = ai.choose(e, i, nav);
+        decided[i] = d == null ? -1 : (byte) d.ordinal();
+    }
+
+    /** @return threads de calcul */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Un lot contigu des ennemis en attente, avec sa navigation.
+     * Le lot n'est jamais marqué terminé ({@link #exec()} rend false) : il est relancé au pas
+     * suivant tel quel, même si le thread du pool n'est pas encore sorti de {@code exec()},
+     * et la fin de la phase se lit sur le compteur.
+     */
+    private final class Batch extends ForkJoinTask<Void> {
+        private static final long serialVersionUID = 1L;
+
+        private final int index;
+        private final NavigationService nav;
+
+        Batch(int index, NavigationService nav) {
+            this.index = index;
+            this.nav = nav;
+        }
+
+        /** Lot exécuté par le pool : prévient le thread appelant quand c'est le dernier. */
+        @Override
+        protected boolean exec() {
+            try {
+                run();
+            } catch (Throwable t) {
+                failure = t;
+            } finally {
+                if (pending.decrementAndGet() == 0) LockSupport.unpark(caller);
+            }
+            return false;
+        }
+
+        /** Choisit les directions du lot. */
+        void run() {
+            int from = (int) ((long) count * index / batches.length);
+            int to = (int) ((long) count * (index + 1) / batches.length);
+            for (int k = from; k < to; k++) choose(store, waiting[k], nav, decided);
+        }
+
+        @Override
+        public Void getRawResult() {
+            return null;
+        }
+
+        @Override
+        protected void setRawResult(Void value) {
+        }
+    }
+}
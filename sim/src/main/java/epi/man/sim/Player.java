@@ -0,0 +1,151 @@
+package epi.man.sim;
+
+/**
+ * Logique du joueur (l'étudiante).
+ * Gère :
+ * - le déplacement case par case
+ * - les collisions avec la map
+ * - le reset lorsqu'un ennemi touche le joueur
+ * - l'état d'invincibilité temporaire après respawn
+ */
+public class Player extends Body {
+
+    /** Dimensions de la boîte de collision du joueur */
+    public static final float WIDTH = 40, HEIGHT = 50;
+
+    /** Durée d'invincibilité après un respawn, en secondes */
+    private static final float INVINCIBILITY_DURATION = 0.5f;
+
+    private final GameMap map;
+
+    /** Direction regardée (dernière direction demandée) */
+    private Direction direction = Direction.DOWN;
+
+    // déplacement case par case
+    private boolean isMoving = false;
+    private float targetX, targetY;
+
+    // spawn / invincibilité
+    private final float startX, startY;
+    private float invincibilityTimer = 0f;
+
+    /**
+     * @param map carte sur laquelle se déplace le joueur
+     * @param x position X de départ
+     * @param y position Y de départ
+     * @param speed vitesse de déplacement
+     */
+    public Player(GameMap map, float x, float y, float speed) {
+        super(x, y, speed, WIDTH, HEIGHT);
+        this.map = map;
+        this.startX = x;
+        this.startY = y;
+
+        // Première destination = case actuelle
+        targetX = x;
+        targetY = y;
+    }
+
+    /**
+     * Replace le joueur à sa position de départ après une collision avec un ennemi.
+     * Active une courte invincibilité.
+     */
+    public void resetToStart() {
+        x = startX;
+        y = startY;
+        // téléportation : pas d'interpolation depuis l'ancienne position
+        prevX = x;
+        prevY = y;
+        targetX = x;
+        targetY = y;
+        isMoving = false;
+        invincibilityTimer = INVINCIBILITY_DURATION;
+    }
+
+    /**
+     * Met à jour :
+     * - la gestion d'invincibilité
+     * - le déplacement case par case
+     * @param delta durée d'un pas de simulation
+     * @param input commandes du joueur
+     */
+    public void update(float delta, InputSource input) {
+        if (invincibilityTimer > 0f)
+            invincibilityTimer -= delta;
+
+        if (!isMoving)
+            handleInput(input);
+
+        moveTowardTarget(delta);
+    }
+
+    /**
+     * Lit la direction demandée,
+     * vérifie la possibilité du mouvement et prépare la prochaine case.
+     */
+    private void handleInput(InputSource input) {
+
+        int tile = GameMap.TILE_SIZE;
+
+        // Recentrage parfait sur la grille
+        x = Math.round(x / tile) * tile;
+        y = Math.round(y / tile) * tile;
+
+        Direction wanted = input.direction();
+        if (wanted == null) return; // aucune touche
+
+        direction = wanted;
+        float tryX = x + wanted.dx * tile;
+        float tryY = y + wanted.dy * tile;
+
+        // Collision mur
+        if (map.isWalkableWorld(tryX + 1, tryY + 1)) {
+            targetX = tryX;
+            targetY = tryY;
+            isMoving = true;
+        }
+    }
+
+    /**
+     * Déplace progressivement vers targetX/targetY.
+     * Les trophées sont ramassés par la phase de collision ({@link CollisionSystem}).
+     */
+    private void moveTowardTarget(float delta) {
+        if (!isMoving) return;
+
+        float dist = speed * delta;
+
+        // Arrivé sur la case
+        if (Math.abs(targetX - x) <= dist &&
+            Math.abs(targetY - y) <= dist) {
+
+            x = targetX;
+            y = targetY;
+            isMoving = false;
+            return;
+        }
+
+        // Mouvement
+        if (x < targetX) x += dist;
+        if (x > targetX) x -= dist;
+        if (y < targetY) y += dist;
+        if (y > targetY) y -= dist;
+    }
+
+    /** @return direction regardée par le joueur */
+    public Direction getDirection() {
+        return direction;
+    }
+
+    /** @return true si le joueur est en train de changer de case */
+    public boolean isMoving() {
+        return isMoving;
+    }
+
+    /**
+     * @return true si le joueur peut mourir (invincibilité terminée)
+     */
+    public boolean isVulnerable() {
+        return invincibilityTimer <= 0f;
+    }
+}
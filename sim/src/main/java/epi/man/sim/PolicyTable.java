@@ -0,0 +1,52 @@
+package epi.man.sim;
+
+/**
+ * Ordre de priorité d'un {@link EnemyPolicy} compilé pour une carte.
+ * Le choix ne dépend que des sorties de la tuile et de la direction courante : la table donne,
+ * pour chacun des 16 masques de sorties et chaque direction courante, la direction choisie
+ * (premier choix de l'IA qui est une sortie de la tuile). Une décision d'ennemi ne coûte plus
+ * que la lecture du masque de la tuile et d'une case de la table, sans rien garder par tuile.
+ *
+ * Indexation : {@code masque * 4 + ordinal de la direction courante},
+ * valeur : ordinal de la direction choisie, -1 si la tuile n'a aucune sortie.
+ */
+public class PolicyTable {
+
+    /** Masques de sorties possibles (4 bits)*/
+    private static final int MASKS = 16;
+
+    private final JunctionGraph graph;
+    /** Direction choisie par masque de sorties et direction courante*/
+    private final byte[] next = new byte[MASKS * 4];
+
+    /**
+     * Compile l'ordre de priorité sur chaque masque de sorties.
+     * @param graph sorties des tuiles de la carte
+     * @param policy IA à compiler
+     */
+    public PolicyTable(JunctionGraph graph, EnemyPolicy policy) {
+        this.graph = graph;
+        for (int exits = 0; exits < MASKS; exits++) {
+            for (Direction current : Direction.ALL) {
+                byte choice = -1;
+                for (Direction d : policy.priorities(current)) {
+                    if ((exits & d.bit()) != 0) {
+                        choice = (byte) d.ordinal();
+                        break;
+                    }
+                }
+                next[exits * 4 + current.ordinal()] = choice;
+            }
+        }
+    }
+
+    /**
+     * @param tile indice de la tuile
+     * @param current direction courante
+     * @return direction choisie, null si la tuile n'a aucune sortie
+     */
+    public Direction next(int tile, Direction current) {
+        byte choice = next[graph.exits(tile) * 4 + current.ordinal()];
+        return choice < 0 ? null : Direction.ALL[choice];
+    }
+}
@@ -0,0 +1,50 @@
+package epi.man.sim;
+
+/**
+ * Fait tourner un {@link World} à pas fixe à partir d'une source de temps et d'une source
+ * de commandes. Le jeu y branche le temps et le clavier de libGDX ; un test ou un
+ * benchmark peut y brancher un temps simulé et des commandes scriptées.
+ */
+public class Simulation {
+
+    private final World world;
+    private final InputSource input;
+    private final TimeSource time;
+    private final FixedStepLoop loop;
+
+    /**
+     * @param world partie à faire tourner
+     * @param input commandes du joueur
+     * @param time durée de chaque frame
+     * @param loop découpage du temps en pas fixes
+     */
+    public Simulation(World world, InputSource input, TimeSource time, FixedStepLoop loop) {
+        this.world = world;
+        this.input = input;
+        this.time = time;
+        this.loop = loop;
+    }
+
+    /**
+     * Avance la partie du temps écoulé depuis la frame précédente.
+     * @return fraction entre l'état précédent et l'état courant, pour interpoler l'affichage
+     */
+    public float frame() {
+        int steps = loop.advance(time.deltaSeconds());
+        float step = loop.getStepDuration();
+        for (int i = 0; i < steps && !world.isLost(); i++) {
+            world.step(step, input);
+        }
+        return loop.alpha();
+    }
+
+    /** @return la partie */
+    public World getWorld() {
+        return world;
+    }
+
+    /** @return la boucle à pas fixe */
+    public FixedStepLoop getLoop() {
+        return loop;
+    }
+}
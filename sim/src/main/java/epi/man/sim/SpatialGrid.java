@@ -0,0 +1,135 @@
+package epi.man.sim;
+
+import java.util.Arrays;
+
+/**
+ * Broadphase des collisions : grille uniforme dont les cases ont la taille d'une tuile.
+ * Chaque entité est rangée dans toutes les cases que couvre sa boîte ; une requête ne
+ * regarde que les entités des cases couvertes par la boîte demandée, au lieu de toutes.
+ * La grille est reconstruite à chaque pas (une liste chaînée par case, dans des tableaux),
+ * sans allocation une fois les tableaux à la bonne taille.
+ */
+public class SpatialGrid {
+
+    /** Nombre de colonnes et de lignes de la grille*/
+    private final int cols, rows;
+    /** Taille d'une case en pixels*/
+    private final int cellSize;
+    /** Première entrée de chaque case, -1 si vide*/
+    private final int[] head;
+    /** Cases remplies au dernier rangement, les seules à vider au suivant*/
+    private int[] usedCells = new int[64];
+    private int usedCount = 0;
+    /** Entrées : indice de l'entité et entrée suivante de la même case*/
+    private int[] entryBody = new int[64], entryNext = new int[64];
+    private int entryCount = 0;
+    /** Marque des entités déjà renvoyées par la requête en cours*/
+    private int[] seen = new int[16];
+    /** Numéro de la requête en cours, pour ne pas effacer {@link #seen}*/
+    private int queryStamp = 0;
+
+    /**
+     * @param cols nombre de colonnes
+     * @param rows nombre de lignes
+     * @param cellSize taille d'une case en pixels
+     */
+    public SpatialGrid(int cols, int rows, int cellSize) {
+        this.cols = cols;
+        this.rows = rows;
+        this.cellSize = cellSize;
+        this.head = new int[cols * rows];
+        Arrays.fill(head, -1);
+    }
+
+    /**
+     * Grille alignée sur les tuiles de la carte.
+     * @param map carte couverte par la grille
+     */
+    public SpatialGrid(GameMap map) {
+        this(map.getWidth(), map.getHeight(), GameMap.TILE_SIZE);
+    }
+
+    /**
+     * Range les entités dans la grille (remplace le contenu précédent).
+     * Seules les cases remplies la fois précédente sont vidées : le coût dépend
+     * du nombre d'entités, pas de la taille de la carte.
+     * Les boîtes sont lues dans des tableaux parallèles ({@link EnemyStore}),
+     * l'entité i est identifiée ensuite par son indice.
+     * @param x positions X
+     * @param y positions Y
+     * @param width largeurs
+     * @param height hauteurs
+     * @param count nombre d'entités
+     */
+    public void build(float[] x, float[] y, float[] width, float[] height, int count) {
+        for (int k = 0; k < usedCount; k++) head[usedCells[k]] = -1;
+        usedCount = 0;
+        entryCount = 0;
+        if (seen.length < count) seen = new int[Math.max(count, seen.length * 2)];
+        // une boîte pas plus grande qu'une case en couvre 4 au plus : pas de croissance en cours de partie
+        if (entryBody.length < count * 4) {
+            entryBody = new int[count * 4];
+            entryNext = new int[count * 4];
+            usedCells = new int[count * 4];
+        }
+
+        for (int i = 0; i < count; i++) {
+            int col0 = col(x[i]), col1 = col(x[i] + width[i]);
+            int row0 = row(y[i]), row1 = row(y[i] + height[i]);
+            for (int r = row0; r <= row1; r++)
+                for (int c = col0; c <= col1; c++)
+                    insert(r * cols + c, i);
+        }
+    }
+
+    /** Ajoute une entité en tête de la liste d'une case. */
+    private void insert(int cell, int body) {
+        if (entryCount == entryBody.length) {
+            entryBody = Arrays.copyOf(entryBody, entryCount * 2);
+            entryNext = Arrays.copyOf(entryNext, entryCount * 2);
+        }
+        if (head[cell] < 0) {
+            if (usedCount == usedCells.length) usedCells = Arrays.copyOf(usedCells, usedCount * 2);
+            usedCells[usedCount++] = cell;
+        }
+        entryBody[entryCount] = body;
+        entryNext[entryCount] = head[cell];
+        head[cell] = entryCount++;
+    }
+
+    /**
+     * Entités rangées dans les cases couvertes par une boîte, chacune une seule fois.
+     * Ce ne sont que des candidates : le test exact reste à faire.
+     * @param out reçoit les indices des entités, doit pouvoir contenir toutes les entités
+     * @return nombre d'indices écrits dans out
+     */
+    public int query(float x, float y, float w, float h, int[] out) {
+        int stamp = ++queryStamp;
+        int count = 0;
+        int col0 = col(x), col1 = col(x + w);
+        int row0 = row(y), row1 = row(y + h);
+        for (int r = row0; r <= row1; r++) {
+            for (int c = col0; c <= col1; c++) {
+                for (int e = head[r * cols + c]; e >= 0; e = entryNext[e]) {
+                    int i = entryBody[e];
+                    if (seen[i] == stamp) continue;
+                    seen[i] = stamp;
+                    out[count++] = i;
+                }
+            }
+        }
+        return count;
+    }
+
+    /** Colonne de la case, bornée à la grille (les entités hors carte vont au bord). */
+    private int col(float worldX) {
+        int c = (int) Math.floor(worldX / cellSize);
+        return c < 0 ? 0 : (c >= cols ? cols - 1 : c);
+    }
+
+    /** Ligne de la case depuis le bas du monde, bornée à la grille. */
+    private int row(float worldY) {
+        int r = (int) Math.floor(worldY / cellSize);
+        return r < 0 ? 0 : (r >= rows ? rows - 1 : r);
+    }
+}
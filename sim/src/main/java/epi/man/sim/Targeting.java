@@ -0,0 +1,15 @@
+package epi.man.sim;
+
+/**
+ * Tuile visée par un ennemi aux carrefours.
+ */
+public enum Targeting {
+    /** aucune : suit seulement son ordre de priorité */
+    WANDER,
+    /** le joueur, par le {@link FlowField} */
+    CHASE,
+    /** quelques tuiles devant le joueur, dans la direction où il regarde */
+    AMBUSH,
+    /** le côté opposé du joueur par rapport au poursuivant, pour le prendre en tenaille */
+    FLANK
+}
@@ -0,0 +1,71 @@
+package epi.man.sim;
+
+/**
+ * Identifiants compacts des tuiles de la carte.
+ * Chaque caractère du fichier map est converti une seule fois en un id sur un octet
+ * au chargement, les tests de collision ne comparent donc plus de caractères.
+ */
+public final class TileType {
+
+    /** Case hors carte ou caractère inconnu (non traversable). */
+    public static final byte VOID = 0;
+    /** Sol vide '0'. */
+    public static final byte FLOOR = 1;
+    /** Case de départ du joueur 'P'. */
+    public static final byte SPAWN = 2;
+    /** Case contenant un trophée 'b'. */
+    public static final byte BONUS = 3;
+    /** Porte de l'enclos des ennemis '-'. */
+    public static final byte DOOR = 4;
+    /** Table 'T'. */
+    public static final byte TABLE = 5;
+    /** Chaise 'C'. */
+    public static final byte CHAIR = 6;
+    /** Distributeur 'D'. */
+    public static final byte VENDING = 7;
+    /** Table centrale 'S'. */
+    public static final byte CTABLE = 8;
+
+    /** Caractère du fichier map associé à chaque id. */
+    private static final char[] CHARS = {' ', '0', 'P', 'b', '-', 'T', 'C', 'D', 'S'};
+
+    /** Traversabilité de chaque id. */
+    private static final boolean[] WALKABLE = {false, true, true, true, true, false, false, false, false};
+
+    private TileType() {}
+
+    /**
+     * Convertit un caractère du fichier map en id de tuile.
+     * @param c caractère lu
+     * @return id de la tuile, {@link #VOID} si inconnu
+     */
+    public static byte fromChar(char c) {
+        switch (c) {
+            case '0': return FLOOR;
+            case 'P': return SPAWN;
+            case 'b': return BONUS;
+            case '-': return DOOR;
+            case 'T': return TABLE;
+            case 'C': return CHAIR;
+            case 'D': return VENDING;
+            case 'S': return CTABLE;
+            default:  return VOID;
+        }
+    }
+
+    /**
+     * @param id id de tuile
+     * @return caractère du fichier map correspondant
+     */
+    public static char toChar(byte id) {
+        return CHARS[id];
+    }
+
+    /**
+     * @param id id de tuile
+     * @return true si la tuile est traversable
+     */
+    public static boolean isWalkable(byte id) {
+        return WALKABLE[id];
+    }
+}
@@ -0,0 +1,13 @@
+package epi.man.sim;
+
+/**
+ * Source du temps réel qui fait avancer la simulation.
+ * Le jeu la branche sur l'horloge d'affichage, une simulation sans fenêtre sur un pas constant.
+ */
+public interface TimeSource {
+
+    /**
+     * @return temps écoulé depuis l'appel précédent, en secondes
+     */
+    float deltaSeconds();
+}
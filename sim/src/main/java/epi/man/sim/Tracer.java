@@ -0,0 +1,60 @@
+package epi.man.sim;
+
+/**
+ * Événements détaillés d'une session, pour un outil de profilage externe
+ * (Java Flight Recorder avec {@code --jfr}, voir le module jfr).
+ * Toutes les méthodes ne font rien par défaut : {@link #NONE} ne coûte qu'un appel vide.
+ */
+public interface Tracer {
+
+    /** Tracer qui ignore tous les événements*/
+    Tracer NONE = new Tracer() {};
+
+    /** Début d'une phase de frame ({@link FrameProfiler#begin(Metric)}). */
+    default void beginPhase(Metric metric) {}
+
+    /** Fin d'une phase de frame ({@link FrameProfiler#end(Metric)}). */
+    default void endPhase(Metric metric) {}
+
+    /**
+     * Un ennemi a choisi sa direction sur un carrefour.
+     * @param enemy indice de l'ennemi
+     * @param tile tuile du carrefour
+     * @param direction direction prise
+     * @param goal tuile visée, -1 si aucune
+     */
+    default void decision(int enemy, int tile, Direction direction, int goal) {}
+
+    /** Début de la phase de collision d'un pas. */
+    default void beginCollisions() {}
+
+    /**
+     * Fin de la phase de collision d'un pas.
+     * @param enemies ennemis rangés dans la grille
+     * @param candidates ennemis testés contre le joueur
+     * @param contacts contacts joueur / ennemi trouvés
+     */
+    default void endCollisions(int enemies, int candidates, int contacts) {}
+
+    /** Début du chargement d'une carte. */
+    default void beginMapLoad() {}
+
+    /**
+     * Fin du chargement d'une carte.
+     * @param path fichier de la carte
+     * @param width largeur en tuiles
+     * @param height hauteur en tuiles
+     */
+    default void endMapLoad(String path, int width, int height) {}
+
+    /**
+     * Une ressource (image, atlas, musique) est chargée.
+     * @param path chemin de la ressource
+     * @param type type de la ressource
+     * @param nanos durée du chargement, en nanosecondes
+     */
+    default void assetLoaded(String path, String type, long nanos) {}
+
+    /** Fin de la session : termine l'enregistrement. */
+    default void close() {}
+}
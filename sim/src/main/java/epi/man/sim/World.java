@@ -0,0 +1,319 @@
+package epi.man.sim;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * État complet d'une partie : carte, joueur, ennemis, score et vies.
+ * {@link #step(float, InputSource)} avance la partie d'un pas fixe,
+ * sans aucune dépendance à libGDX ni à l'affichage.
+ */
+public class World {
+
+    /** Vitesse de l'étudiante, en pixels par seconde*/
+    public static final float PLAYER_SPEED = 200f;
+    /** Vies au début de la partie*/
+    public static final int START_LIVES = 3;
+    /** Points gagnés par bonus*/
+    public static final int BONUS_SCORE = 50;
+    /** Temps sans dégât après une touche, en secondes*/
+    public static final float HIT_COOLDOWN = 1f;
+    /** Avance de l'embuscade devant le joueur, en tuiles*/
+    public static final int AMBUSH_TILES = 4;
+    /** Au-delà de ce nombre de tuiles, les poursuivants passent par la navigation plutôt que par un champ sur toute la carte*/
+    public static final int CHASE_FIELD_MAX_TILES = 256 * 256;
+
+    private final GameMap map;
+    private final Player player;
+    /** Ennemis, rangés par composant*/
+    private final EnemyStore enemies;
+    private final EnemyAiSystem ai;
+    private final EnemyMovementSystem movement;
+    /** Ennemis mis à jour à chaque pas, moins souvent ou pas du tout selon leur distance au joueur*/
+    private ActivityScheduler activity = new ActivityScheduler();
+    private final CollisionSystem collisions;
+    private final ContactListener contacts = new Contacts();
+    /** Distances vers la tuile du joueur, pour les ennemis qui poursuivent, null sur les grandes cartes*/
+    private final FlowField toPlayer;
+    /** Tuile qui contient le centre du joueur*/
+    private int playerTile = -1;
+    /** Chemins vers une tuile quelconque, null si la carte n'en a pas*/
+    private final NavigationService navigation;
+
+    private WorldListener listener = WorldListener.NONE;
+    private FrameProfiler profiler = FrameProfiler.NONE;
+
+    private int score = 0;
+    private int lives = START_LIVES;
+    private float hitCooldown = 0f;
+    private boolean lost = false;
+    private boolean won = false;
+
+    /**
+     * Crée la partie, le joueur apparaît sur la case 'P'.
+     * Les chemins des petites cartes sont précalculés en mémoire ({@link AllPairsTable}),
+     * ceux des grandes sont cherchés par blocs ({@link HierarchicalPathfinder}).
+     * @param map carte de la partie
+     */
+    public World(GameMap map) {
+        this(map, navigationFor(map));
+    }
+
+    /**
+     * Crée la partie, le joueur apparaît sur la case 'P'.
+     * @param map carte de la partie
+     * @param navigation chemins pour les ennemis qui visent une tuile, null si aucun
+     */
+    public World(GameMap map, NavigationService navigation) {
+        this.map = map;
+        this.navigation = navigation;
+        this.player = new Player(map, map.getSpawnX(), map.getSpawnY(), PLAYER_SPEED);
+        this.enemies = new EnemyStore(map, 16);
+        this.collisions = new CollisionSystem(map, player, enemies);
+        this.toPlayer = map.getWidth() * map.getHeight() <= CHASE_FIELD_MAX_TILES ? new FlowField(map) : null;
+        this.ai = new EnemyAiSystem(map, toPlayer, navigation);
+        this.movement = new EnemyMovementSystem(map, ai);
+        updateFlowField();
+    }
+
+    /**
+     * @param map carte
+     * @return la table de tous les chemins si la carte est assez petite, sinon la recherche par blocs
+     */
+    public static NavigationService navigationFor(GameMap map) {
+        NavigationService table = AllPairsTable.build(map);
+        return table != null ? table : new HierarchicalPathfinder(map);
+    }
+
+    /**
+     * Ajoute un ennemi à la partie.
+     * @param policy IA de déplacement
+     * @param x position X de départ
+     * @param y position Y de départ
+     * @param speed vitesse de déplacement
+     * @param width largeur de la boîte de collision
+     * @param height hauteur de la boîte de collision
+     * @return indice de l'ennemi dans {@link #getEnemies()}
+     */
+    public int spawnEnemy(EnemyPolicy policy, float x, float y, float speed, float width, float height) {
+        return enemies.add(policy, x, y, speed, width, height);
+    }
+
+    /**
+     * Avance la partie d'un pas de simulation.
+     * @param delta durée du pas, en secondes
+     * @param input commandes du joueur
+     */
+    public void step(float delta, InputSource input) {
+        if (lost) return;
+
+        player.savePreviousPosition();
+        enemies.savePreviousPositions();
+
+        if (hitCooldown > 0) hitCooldown -= delta;
+
+        profiler.begin(Metric.PLAYER);
+        player.update(delta, input);
+        profiler.end(Metric.PLAYER);
+
+        profiler.begin(Metric.NAVIGATION);
+        updateFlowField();
+        aimEnemies();
+        profiler.end(Metric.NAVIGATION);
+
+        profiler.begin(Metric.ENEMIES);
+        activity.schedule(enemies, map, playerTile);
+        movement.update(enemies, delta, activity);
+        profiler.end(Metric.ENEMIES);
+
+        profiler.begin(Metric.COLLISION);
+        collisions.detect(contacts);
+        profiler.end(Metric.COLLISION);
+        if (lost) return;
+
+        if (!won && map.getBonuses().getRemaining() == 0) {
+            won = true;
+            listener.onWon();
+        }
+    }
+
+    /**
+     * Recalcule le champ de poursuite quand le centre du joueur change de tuile.
+     */
+    private void updateFlowField() {
+        playerTile = map.tileIndexAtWorld(player.x + player.width / 2f, player.y + player.height / 2f);
+        if (toPlayer != null) toPlayer.update(playerTile);
+    }
+
+    /**
+     * Choisit la tuile visée par chaque ennemi :
+     * - retour à l'enclos pendant l'invincibilité du joueur
+     * - le joueur pour les poursuivants, sur les cartes sans champ de poursuite
+     * - embuscade {@link #AMBUSH_TILES} tuiles devant le joueur
+     * - tenaille : symétrique du poursuivant par rapport au joueur
+     */
+    private void aimEnemies() {
+        boolean retreat = hitCooldown > 0;
+        int ambush = -1, flank = -1;
+        if (!retreat && playerTile >= 0) {
+            ambush = ambushTile(playerTile);
+            flank = flankTile(playerTile);
+        }
+
+        for (int i = 0; i < enemies.size(); i++) {
+            int goal = -1;
+            if (retreat) {
+                goal = enemies.getSpawnTile(i);
+            } else {
+                switch (enemies.getPolicy(i).targeting()) {
+                    case AMBUSH: goal = ambush; break;
+                    case FLANK: goal = flank; break;
+                    case CHASE: goal = toPlayer == null ? playerTile : -1; break;
+                    default: break;
+                }
+            }
+            enemies.setGoal(i, goal);
+        }
+    }
+
+    /** Avance depuis la tuile du joueur dans sa direction, tant que le couloir continue. */
+    private int ambushTile(int playerTile) {
+        JunctionGraph graph = map.getJunctions();
+        Direction d = player.getDirection();
+        int tile = playerTile;
+        for (int k = 0; k < AMBUSH_TILES && (graph.exits(tile) & d.bit()) != 0; k++) {
+            tile = graph.neighbour(tile, d);
+        }
+        return tile;
+    }
+
+    /** Tuile symétrique du premier poursuivant par rapport au joueur, le joueur si elle est hors carte ou dans un mur. */
+    private int flankTile(int playerTile) {
+        int chaserTile = -1;
+        for (int i = 0; i < enemies.size() && chaserTile < 0; i++) {
+            if (enemies.getPolicy(i).targeting() == Targeting.CHASE) chaserTile = enemies.getTile(i);
+        }
+        if (chaserTile < 0) return playerTile;
+
+        int w = map.getWidth();
+        int tile = map.tileIndex(2 * (playerTile % w) - chaserTile % w, 2 * (playerTile / w) - chaserTile / w);
+        return map.isWalkable(tile) ? tile : playerTile;
+    }
+
+    /**
+     * Effets des contacts trouvés par la phase de collision.
+     */
+    private class Contacts implements ContactListener {
+
+        /** Un seul ennemi peut toucher le joueur, puis le cooldown protège le joueur. */
+        @Override
+        public void onEnemyContact(int enemy) {
+            if (lost || hitCooldown > 0 || !player.isVulnerable()) return;
+
+            lives--;
+            player.resetToStart();
+            hitCooldown = HIT_COOLDOWN;
+            listener.onPlayerHit(lives);
+
+            if (lives <= 0) {
+                lost = true;
+                listener.onGameOver();
+            }
+        }
+
+        /** Bonus ramassé → points */
+        @Override
+        public void onBonusContact(int tileIndex) {
+            if (lost || !map.getBonuses().collect(tileIndex)) return;
+            score += BONUS_SCORE;
+            listener.onBonusCollected(tileIndex);
+        }
+    }
+
+    /** @param listener reçoit les événements de la partie, null pour aucun */
+    public void setListener(WorldListener listener) {
+        this.listener = listener == null ? WorldListener.NONE : listener;
+    }
+
+    /** @param profiler reçoit la durée de chaque phase d'un pas, null pour aucun */
+    public void setProfiler(FrameProfiler profiler) {
+        this.profiler = profiler == null ? FrameProfiler.NONE : profiler;
+    }
+
+    /**
+     * Choix de direction des ennemis en parallèle : les décisions sont calculées sur les threads
+     * du pool puis appliquées sur le thread de la simulation, dans l'ordre des ennemis, avec
+     * le même résultat qu'en séquentiel ({@link ParallelDecisions}).
+     * @param pool threads de calcul, null pour décider sur le thread de la simulation
+     */
+    public void setDecisionPool(ForkJoinPool pool) {
+        movement.setParallel(pool == null ? null : new ParallelDecisions(pool, ai));
+    }
+
+    /**
+     * @param activity bandes de distance des ennemis, null pour tous les mettre à jour à chaque pas
+     */
+    public void setActivity(ActivityScheduler activity) {
+        this.activity = activity == null ? ActivityScheduler.fullRate() : activity;
+    }
+
+    /** @return bandes de distance des ennemis et nombre d'ennemis dans chacune */
+    public ActivityScheduler getActivity() {
+        return activity;
+    }
+
+    /** @param tracer reçoit les décisions des ennemis et le bilan des collisions, null pour aucun */
+    public void setTracer(Tracer tracer) {
+        ai.setTracer(tracer);
+        collisions.setTracer(tracer);
+    }
+
+    /** @return carte de la partie */
+    public GameMap getMap() {
+        return map;
+    }
+
+    /** @return distances vers la tuile du joueur, null sur les cartes de plus de {@link #CHASE_FIELD_MAX_TILES} tuiles */
+    public FlowField getFlowField() {
+        return toPlayer;
+    }
+
+    /** @return le joueur */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /** @return les ennemis (ne pas modifier, sauf par {@link #spawnEnemy}) */
+    public EnemyStore getEnemies() {
+        return enemies;
+    }
+
+    /** @return chemins vers une tuile quelconque, null si la carte n'en a pas */
+    public NavigationService getNavigation() {
+        return navigation;
+    }
+
+    /** @return score actuel */
+    public int getScore() {
+        return score;
+    }
+
+    /** @return vies restantes */
+    public int getLives() {
+        return lives;
+    }
+
+    /** @return temps restant sans dégât après une touche */
+    public float getHitCooldown() {
+        return hitCooldown;
+    }
+
+    /** @return true si le joueur n'a plus de vie */
+    public boolean isLost() {
+        return lost;
+    }
+
+    /** @return true si tous les bonus ont été ramassés */
+    public boolean isWon() {
+        return won;
+    }
+}
@@ -0,0 +1,29 @@
+package epi.man.sim;
+
+/**
+ * Événements de la partie, pour que l'affichage et le son réagissent à la simulation.
+ * Toutes les méthodes ne font rien par défaut.
+ */
+public interface WorldListener {
+
+    /** Listener qui ignore tous les événements*/
+    WorldListener NONE = new WorldListener() {};
+
+    /**
+     * Un ennemi a touché le joueur.
+     * @param livesLeft vies restantes
+     */
+    default void onPlayerHit(int livesLeft) {}
+
+    /** Le joueur n'a plus de vie. */
+    default void onGameOver() {}
+
+    /**
+     * Le joueur a ramassé un bonus.
+     * @param tileIndex indice de la tuile du bonus
+     */
+    default void onBonusCollected(int tileIndex) {}
+
+    /** Tous les bonus ont été ramassés. */
+    default void onWon() {}
+}